@@ -0,0 +1,38 @@
+package Restart.BankingSystem.controller;
+
+import Restart.BankingSystem.dto.OpenAccountRequest;
+import Restart.BankingSystem.model.Customer;
+import Restart.BankingSystem.repo.CustomerRepo;
+import Restart.BankingSystem.service.AccountNotFoundException;
+import Restart.BankingSystem.service.AccountService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class AccountController {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    // The account number is allocated by the server (see AccountNumberAllocator)
+    @PostMapping("/accounts")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Customer toOpenAccount(@Valid @RequestBody OpenAccountRequest request) {
+        return accountService.open(request);
+    }
+
+    @GetMapping("/accounts/{accountId}")
+    public Customer toGetAccount(@PathVariable long accountId) {
+        return customerRepo.findById(accountId).orElseThrow(() -> new AccountNotFoundException(accountId));
+    }
+}
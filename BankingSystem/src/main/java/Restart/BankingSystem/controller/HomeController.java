@@ -1,46 +1,103 @@
 package Restart.BankingSystem.controller;
 
+import Restart.BankingSystem.web.HomePageCache;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.tomcat.util.http.parser.AcceptEncoding;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.Map;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
 
 @Controller
 @RequestMapping("/home")
 public class HomeController {
 
+    // Preferred first when q-values tie; a coding is only offered once HomePageCache has a variant for it
+    private static final List<String> CODINGS = List.of("br", "gzip");
+
+    @Autowired
+    private HomePageCache cache;
+
+    @Value("${bank.home.max-age:60s}")
+    private Duration maxAge;
+
+    // Served from HomePageCache: no model building or template rendering per request
     @GetMapping("/")
-    public String toGetWelcome(Model model) {
-        model.addAttribute("title", "🌟🌍 WELCOME TO KRM BANK – WHERE YOUR DREAMS MEET OPPORTUNITIES! 🌍🌟");
-
-        model.addAttribute("message", Map.of(
-                "greeting", "📢 Dear Valued Client, 🎉✨ A Grand Welcome to KRM BANK! ✨🎉",
-                "welcomeNote", "We are absolutely thrilled and honored to have you onboard! 🤩💙",
-                "motto", "At KRM BANK, we don't just offer banking services – we offer trust, security, and a brighter financial future for you! 💰🚀"
-        ));
-
-        model.addAttribute("whyChooseUs", Map.of(
-                "24x7 Banking", "Effortless Banking, Anytime, Anywhere! 🌎💻",
-                "Fast & Secure", "Lightning-Fast & Super Secure Transactions! ⚡🔒",
-                "Personalized Solutions", "Tailored Financial Solutions Just for YOU! 🎯🏆"
-        ));
-
-        model.addAttribute("journey", Map.of(
-                "startToday", "Your Journey with KRM BANK Starts Today! 🚀",
-                "customerAsFamily", "You are family! 🏡💖"
-        ));
-
-        model.addAttribute("thankYou", "💎 Thank You for Trusting KRM BANK! 💎");
-
-        model.addAttribute("contact", Map.of(
-                "closingNote", "💙 With Warm Regards,",
-                "bankName", "📌 KRM BANK – Empowering Your Financial Future 💡💰🏦",
-                "customerSupport", "📞 7530022429 📲📞",
-                "email", "📧 thekrmx@gmail.com 💻🌍"
-        ));
-
-        return "home";
+    public ResponseEntity<byte[]> toGetWelcome(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request, HttpServletResponse response) {
+        HomePageCache.Page page = cache.current();
+        HomePageCache.Variant variant = negotiate(page, acceptEncoding);
+
+        // A 304 has to carry these too, so they go on the response before the check
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.maxAge(maxAge).cachePublic().getHeaderValue());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        // Sets the ETag, and the 304 when If-None-Match matches it (weak comparison)
+        if (request.checkNotModified(variant.etag())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (!variant.coding().equals("identity")) {
+            ok.header(HttpHeaders.CONTENT_ENCODING, variant.coding());
+        }
+        return ok.contentType(new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8))
+                .contentLength(variant.body().length)
+                .body(variant.body());
+    }
+
+    // The coding with the highest q-value that has a variant; q=0 means "not this one". Without an
+    // acceptable coding the page goes out uncompressed.
+    private static HomePageCache.Variant negotiate(HomePageCache.Page page, String acceptEncoding) {
+        List<AcceptEncoding> accepted = parse(acceptEncoding);
+        HomePageCache.Variant best = page.variant("identity");
+        double bestQuality = 0;
+        for (String coding : CODINGS) {
+            HomePageCache.Variant variant = page.variant(coding);
+            double quality = quality(accepted, coding);
+            if (variant != null && quality > bestQuality) {
+                best = variant;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    // Tomcat's parser, the one its own response compression uses
+    private static List<AcceptEncoding> parse(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return List.of();
+        }
+        try {
+            return AcceptEncoding.parse(new StringReader(acceptEncoding));
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    // An explicit entry wins over "*"; a coding that is not listed is not acceptable
+    private static double quality(List<AcceptEncoding> accepted, String coding) {
+        double wildcard = 0;
+        for (AcceptEncoding entry : accepted) {
+            if (entry.getEncoding().equalsIgnoreCase(coding)) {
+                return entry.getQuality();
+            }
+            if (entry.getEncoding().equals("*")) {
+                wildcard = entry.getQuality();
+            }
+        }
+        return wildcard;
     }
 }
@@ -0,0 +1,32 @@
+package Restart.BankingSystem.controller;
+
+import Restart.BankingSystem.dto.StatementExportStatus;
+import Restart.BankingSystem.export.StatementExporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.YearMonth;
+
+@RestController
+public class StatementExportController {
+
+    @Autowired
+    private StatementExporter exporter;
+
+    // Starts (or resumes) the export of a month, e.g. POST /exports/statements/2025-03; 409 while it runs
+    @PostMapping("/exports/statements/{period}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public StatementExportStatus toStartExport(@PathVariable YearMonth period) {
+        return exporter.start(period);
+    }
+
+    @GetMapping("/exports/statements/{period}")
+    public StatementExportStatus toGetExport(@PathVariable YearMonth period) {
+        return exporter.toGetStatus(period);
+    }
+}
@@ -0,0 +1,30 @@
+package Restart.BankingSystem.controller;
+
+import Restart.BankingSystem.dto.TransferReceipt;
+import Restart.BankingSystem.dto.TransferRequest;
+import Restart.BankingSystem.dto.TransferStats;
+import Restart.BankingSystem.service.TransferService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class TransferController {
+
+    @Autowired
+    private TransferService service;
+
+    // 400 same account, 404 unknown account, 409 insufficient funds, 503 still conflicting after the retries
+    @PostMapping("/transfers")
+    public TransferReceipt toTransfer(@Valid @RequestBody TransferRequest request) {
+        return service.transfer(request);
+    }
+
+    @GetMapping("/transfers/stats")
+    public TransferStats toGetStats() {
+        return service.toGetStats();
+    }
+}
@@ -0,0 +1,11 @@
+package Restart.BankingSystem.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+
+import java.math.BigDecimal;
+
+public record OpenAccountRequest(@NotBlank String firstname, String lastname,
+                                 @DecimalMin("0.00") @Digits(integer = 17, fraction = 2) BigDecimal openingBalance) {
+}
@@ -0,0 +1,9 @@
+package Restart.BankingSystem.dto;
+
+import java.util.List;
+
+// State of one month's export as found on disk. running is true while this node is writing it;
+// an export with completedShards < shards and running false was interrupted and resumes on the next start.
+public record StatementExportStatus(String period, boolean running, int shards, int completedShards,
+                                    long customers, long transfers, List<String> files) {
+}
@@ -0,0 +1,9 @@
+package Restart.BankingSystem.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// attempts > 1 means the transfer was retried after a conflicting update
+public record TransferReceipt(long transferId, long from, long to, BigDecimal amount,
+                              BigDecimal fromBalance, BigDecimal toBalance, Instant at, int attempts) {
+}
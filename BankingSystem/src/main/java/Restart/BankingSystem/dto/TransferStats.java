@@ -0,0 +1,5 @@
+package Restart.BankingSystem.dto;
+
+// Counters since startup for this node. retries / attempts is the share of attempts lost to conflicts.
+public record TransferStats(long transfers, long attempts, long retries, long lockTimeouts, long gaveUp) {
+}
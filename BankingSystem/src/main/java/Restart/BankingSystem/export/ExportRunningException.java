@@ -0,0 +1,14 @@
+package Restart.BankingSystem.export;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.time.YearMonth;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ExportRunningException extends RuntimeException {
+
+    public ExportRunningException(YearMonth period) {
+        super("The statements for " + period + " are already being exported");
+    }
+}
@@ -0,0 +1,112 @@
+package Restart.BankingSystem.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+// Writes text as a gzip file straight to a FileChannel: the text is collected in one buffer, deflated
+// into a direct buffer of the same size and written out whenever that fills up, so a file costs two
+// fixed buffers however large it gets. (GZIPOutputStream over a FileOutputStream would write every
+// few hundred bytes of output through its own small buffer.)
+final class GzipChannelWriter implements Closeable {
+
+    // Magic, deflate, no flags, no mtime, no extra flags, unknown OS
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final FileChannel channel;
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] input;
+    private final ByteBuffer output;
+    private int inputLength;
+    private long uncompressed;
+    private boolean closed;
+
+    GzipChannelWriter(Path path, int bufferSize, int level) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        deflater = new Deflater(level, true);
+        input = new byte[bufferSize];
+        output = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+        output.put(HEADER);
+    }
+
+    void write(CharSequence text) throws IOException {
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        int offset = 0;
+        while (offset < bytes.length) {
+            int length = Math.min(bytes.length - offset, input.length - inputLength);
+            System.arraycopy(bytes, offset, input, inputLength, length);
+            inputLength += length;
+            offset += length;
+            if (inputLength == input.length) {
+                deflateInput();
+            }
+        }
+        uncompressed += bytes.length;
+    }
+
+    // Bytes written so far before compression; used to size the part files
+    long uncompressedBytes() {
+        return uncompressed;
+    }
+
+    // Finishes the gzip stream and forces it to disk
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            deflateInput();
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflater.deflate(output);
+                if (!output.hasRemaining()) {
+                    flushOutput();
+                }
+            }
+            if (output.remaining() < 8) {
+                flushOutput();
+            }
+            output.putInt((int) crc.getValue());
+            output.putInt((int) uncompressed);
+            flushOutput();
+            channel.force(true);
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    private void deflateInput() throws IOException {
+        if (inputLength == 0) {
+            return;
+        }
+        crc.update(input, 0, inputLength);
+        deflater.setInput(input, 0, inputLength);
+        while (!deflater.needsInput()) {
+            deflater.deflate(output);
+            if (!output.hasRemaining()) {
+                flushOutput();
+            }
+        }
+        inputLength = 0;
+    }
+
+    private void flushOutput() throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        output.clear();
+    }
+}
@@ -0,0 +1,58 @@
+package Restart.BankingSystem.export;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+// Progress of one shard of an export, rewritten after every finished part file. lastAccount is the
+// last customer whose statement is in a finished part; a resumed run continues after it with part
+// nextPart. Counts are totals over all finished parts.
+record ShardCheckpoint(int shard, long lastAccount, int nextPart, long customers, long transfers, boolean done) {
+
+    static ShardCheckpoint start(int shard) {
+        return new ShardCheckpoint(shard, Long.MIN_VALUE, 0, 0, 0, false);
+    }
+
+    static Path path(Path directory, int shard) {
+        return directory.resolve(String.format("shard-%03d.checkpoint", shard));
+    }
+
+    // The checkpoint of a previous run, or a fresh one
+    static ShardCheckpoint read(Path directory, int shard) throws IOException {
+        Path path = path(directory, shard);
+        if (!Files.exists(path)) {
+            return start(shard);
+        }
+        Properties values = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            values.load(reader);
+        }
+        return new ShardCheckpoint(shard,
+                Long.parseLong(values.getProperty("lastAccount")),
+                Integer.parseInt(values.getProperty("nextPart")),
+                Long.parseLong(values.getProperty("customers")),
+                Long.parseLong(values.getProperty("transfers")),
+                Boolean.parseBoolean(values.getProperty("done")));
+    }
+
+    // Written next to the file and moved over it, so a crash leaves either the old or the new checkpoint
+    void write(Path directory) throws IOException {
+        Properties values = new Properties();
+        values.setProperty("lastAccount", Long.toString(lastAccount));
+        values.setProperty("nextPart", Integer.toString(nextPart));
+        values.setProperty("customers", Long.toString(customers));
+        values.setProperty("transfers", Long.toString(transfers));
+        values.setProperty("done", Boolean.toString(done));
+        Path path = path(directory, shard);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            values.store(writer, null);
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,496 @@
+package Restart.BankingSystem.export;
+
+import Restart.BankingSystem.dto.StatementExportStatus;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Month-end statements: one gzip CSV line per transfer of the month and one summary line per customer,
+// written to <directory>/<yyyy-MM>/statements-<yyyy-MM>-s<shard>-p<part>.csv.gz.
+//
+//   record,account_id,firstname,lastname,transfer_id,created_at,counterparty,amount,closing_balance
+//   T,1001,,,17,2025-03-02T10:15:00Z,1002,-25.00,          one per transfer, outgoing amounts negative
+//   S,1001,Ada,Lovelace,,,,-25.00,975.00                    after the transfers: month net, closing balance
+//
+// The closing balance is the balance at the end of the month: the current balance minus everything the
+// account has sent and received since. Customers are split into shards of contiguous account_id ranges
+// holding about the same number of customers, and the shards are exported in parallel. Each shard reads
+// its customers joined with their transfers through one forward-only cursor in account order (fetchSize rows per
+// round trip), so nothing is collected and heap use does not grow with the
+// number of customers. A part file is written under a .tmp name and renamed once it is complete; it ends
+// at a customer boundary after roughly partSize uncompressed bytes. After every part the shard's
+// checkpoint records the last customer written, so an interrupted export started again for the same month
+// skips the finished shards and parts and continues after that customer.
+@Service
+public class StatementExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementExporter.class);
+
+    private static final String HEADER = "record,account_id,firstname,lastname,transfer_id,created_at,counterparty,amount,closing_balance\n";
+
+    // The shard's customers in account order, each with its closing balance and both directions of the month's
+    // transfers. Every subquery is limited to the shard's account range, so the indexes on the primary key,
+    // (from_account, created_at) and (to_account, created_at) keep each shard to its own rows.
+    private static final String SQL = """
+            SELECT c.account_id, c.firstname, c.lastname, c.balance - COALESCE(l.later, 0) AS closing,
+                   a.transfer_id, a.created_at, a.counterparty, a.amount
+            FROM customer c
+            LEFT JOIN (
+                SELECT x.account, SUM(x.amount) AS later
+                FROM (
+                    SELECT t.from_account AS account, -t.amount AS amount
+                    FROM transfer t WHERE t.from_account > ? AND t.from_account <= ? AND t.created_at >= ?
+                    UNION ALL
+                    SELECT t.to_account, t.amount
+                    FROM transfer t WHERE t.to_account > ? AND t.to_account <= ? AND t.created_at >= ?
+                ) x
+                GROUP BY x.account
+            ) l ON l.account = c.account_id
+            LEFT JOIN (
+                SELECT t.from_account AS account, t.id AS transfer_id, t.created_at,
+                       t.to_account AS counterparty, -t.amount AS amount
+                FROM transfer t
+                WHERE t.from_account > ? AND t.from_account <= ? AND t.created_at >= ? AND t.created_at < ?
+                UNION ALL
+                SELECT t.to_account, t.id, t.created_at, t.from_account, t.amount
+                FROM transfer t
+                WHERE t.to_account > ? AND t.to_account <= ? AND t.created_at >= ? AND t.created_at < ?
+            ) a ON a.account = c.account_id
+            WHERE c.account_id > ? AND c.account_id <= ?
+            ORDER BY c.account_id, a.created_at, a.transfer_id
+            """;
+
+    private static final String SHARDS_FILE = "export.properties";
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    // Added to spring.datasource.url for the export pool only; MySQL needs useCursorFetch=true to stream
+    // fetchSize rows at a time instead of reading the whole result into memory
+    @Value("${bank.export.url-parameters:}")
+    private String urlParameters;
+
+    @Value("${bank.export.directory:exports}")
+    private Path directory;
+
+    @Value("${bank.export.shards:8}")
+    private int shards;
+
+    @Value("${bank.export.threads:4}")
+    private int threads;
+
+    @Value("${bank.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${bank.export.part-size:256MB}")
+    private DataSize partSize;
+
+    @Value("${bank.export.buffer-size:1MB}")
+    private DataSize bufferSize;
+
+    @Value("${bank.export.compression-level:6}")
+    private int compressionLevel;
+
+    // A small read-only pool of its own, one connection per export thread, so the cursor settings and the
+    // long-running reads stay away from the application's pool
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    private final Set<YearMonth> running = ConcurrentHashMap.newKeySet();
+
+    // Runs the exports started from the controller, one at a time
+    private final ExecutorService background = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "statement-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    void init() {
+        String url = dataSourceProperties.determineUrl();
+        if (!urlParameters.isBlank()) {
+            url += (url.contains("?") ? "&" : "?") + urlParameters;
+        }
+        dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).url(url).build();
+        dataSource.setPoolName("statement-export");
+        dataSource.setMaximumPoolSize(threads);
+        dataSource.setMinimumIdle(0);
+        dataSource.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    // Exports (or resumes) the statements of the month and returns when every shard is finished
+    public StatementExportStatus export(YearMonth period) {
+        if (!running.add(period)) {
+            throw new ExportRunningException(period);
+        }
+        try {
+            run(period);
+        } finally {
+            running.remove(period);
+        }
+        return toGetStatus(period);
+    }
+
+    // Same as export, in the background
+    public StatementExportStatus start(YearMonth period) {
+        if (!running.add(period)) {
+            throw new ExportRunningException(period);
+        }
+        background.execute(() -> {
+            try {
+                run(period);
+            } catch (RuntimeException e) {
+                log.error("Statement export for {} failed; starting it again resumes from the checkpoints", period, e);
+            } finally {
+                running.remove(period);
+            }
+        });
+        return toGetStatus(period);
+    }
+
+    public StatementExportStatus toGetStatus(YearMonth period) {
+        Path dir = directory.resolve(period.toString());
+        try {
+            int total = Files.exists(dir.resolve(SHARDS_FILE)) ? readBounds(dir).length - 1 : 0;
+            int completed = 0;
+            long customers = 0;
+            long transfers = 0;
+            for (int shard = 0; shard < total; shard++) {
+                ShardCheckpoint checkpoint = ShardCheckpoint.read(dir, shard);
+                completed += checkpoint.done() ? 1 : 0;
+                customers += checkpoint.customers();
+                transfers += checkpoint.transfers();
+            }
+            List<String> files = new ArrayList<>();
+            if (Files.isDirectory(dir)) {
+                try (Stream<Path> paths = Files.list(dir)) {
+                    paths.map(path -> path.getFileName().toString())
+                            .filter(name -> name.endsWith(".csv.gz"))
+                            .sorted()
+                            .forEach(files::add);
+                }
+            }
+            return new StatementExportStatus(period.toString(), running.contains(period), total, completed,
+                    customers, transfers, files);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void run(YearMonth period) {
+        Path dir = directory.resolve(period.toString());
+        long[] bounds;
+        try {
+            Files.createDirectories(dir);
+            bounds = shardBounds(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int shardCount = bounds.length - 1;
+        long start = System.nanoTime();
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, shardCount), r -> {
+            Thread thread = new Thread(r, "statement-export-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                int current = shard;
+                results.add(pool.submit(() -> {
+                    exportShard(dir, period, bounds[current], bounds[current + 1], current);
+                    return null;
+                }));
+            }
+            // Every shard runs to its end (or failure) before this returns, so all progress is checkpointed
+            RuntimeException failure = null;
+            for (Future<?> result : results) {
+                try {
+                    result.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause() instanceof RuntimeException runtime ? runtime
+                                : new IllegalStateException(e.getCause());
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while exporting the statements for " + period, e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Exported the statements for {} in {} ms", period, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Shard i holds the accounts in (bounds[i], bounds[i + 1]]. The bounds are fixed by the first run of a
+    // month, so resumed runs split the customers the same way; accounts opened since still fall in a range.
+    private long[] shardBounds(Path dir) throws IOException {
+        if (Files.exists(dir.resolve(SHARDS_FILE))) {
+            return readBounds(dir);
+        }
+        long customers = jdbcTemplate.queryForObject("SELECT count(*) FROM customer", Long.class);
+        long[] bounds = new long[shards + 1];
+        bounds[0] = Long.MIN_VALUE;
+        bounds[shards] = Long.MAX_VALUE;
+        for (int i = 1; i < shards; i++) {
+            // The last account of shard i - 1, read off the primary key
+            long offset = i * customers / shards;
+            bounds[i] = offset == 0 ? Long.MIN_VALUE : jdbcTemplate.queryForObject(
+                    "SELECT account_id FROM customer ORDER BY account_id LIMIT 1 OFFSET ?", Long.class, offset - 1);
+        }
+        Properties values = new Properties();
+        values.setProperty("bounds", Arrays.stream(bounds).mapToObj(Long::toString).collect(Collectors.joining(",")));
+        try (Writer writer = Files.newBufferedWriter(dir.resolve(SHARDS_FILE), StandardCharsets.UTF_8)) {
+            values.store(writer, null);
+        }
+        return bounds;
+    }
+
+    private static long[] readBounds(Path dir) throws IOException {
+        Properties values = new Properties();
+        try (Reader reader = Files.newBufferedReader(dir.resolve(SHARDS_FILE), StandardCharsets.UTF_8)) {
+            values.load(reader);
+        }
+        return Arrays.stream(values.getProperty("bounds").split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    private void exportShard(Path dir, YearMonth period, long lower, long upper, int shard) throws IOException {
+        ShardCheckpoint checkpoint = ShardCheckpoint.read(dir, shard);
+        if (checkpoint.done()) {
+            return;
+        }
+        // A part that was being written when the last run stopped is written again from its first customer
+        String prefix = String.format("statements-%s-s%03d-", period, shard);
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : paths.toList()) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(prefix) && name.endsWith(".tmp")) {
+                    Files.delete(path);
+                }
+            }
+        }
+
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+        Timestamp from = Timestamp.from(period.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Timestamp to = Timestamp.from(period.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        ShardWriter writer = new ShardWriter(dir, prefix, checkpoint, utc);
+        long after = Math.max(lower, checkpoint.lastAccount());
+
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                // With useCursorFetch=true (bank.export.url-parameters) MySQL keeps the result on the server and
+                // hands it over fetchSize rows at a time
+                ps.setFetchSize(fetchSize);
+                int parameter = 1;
+                // Transfers since the end of the month, for the closing balance
+                for (int side = 0; side < 2; side++) {
+                    ps.setLong(parameter++, after);
+                    ps.setLong(parameter++, upper);
+                    ps.setTimestamp(parameter++, to, utc);
+                }
+                // The month's transfers
+                for (int side = 0; side < 2; side++) {
+                    ps.setLong(parameter++, after);
+                    ps.setLong(parameter++, upper);
+                    ps.setTimestamp(parameter++, from, utc);
+                    ps.setTimestamp(parameter++, to, utc);
+                }
+                ps.setLong(parameter++, after);
+                ps.setLong(parameter, upper);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.row(rs);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            writer.abandon();
+            throw e;
+        }
+        writer.finish();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        background.shutdownNow();
+        dataSource.close();
+    }
+
+    // Turns one shard's rows into part files; lives on the shard's thread only
+    private class ShardWriter {
+
+        private final Path dir;
+        private final String prefix;
+        private final Calendar utc;
+        private final StringBuilder line = new StringBuilder(256);
+        private final int shard;
+
+        private GzipChannelWriter out;
+        private Path outPath;
+        private int part;
+        private long customers;
+        private long transfers;
+
+        // The customer being written
+        private long account = -1;
+        private String firstname;
+        private String lastname;
+        private BigDecimal closing;
+        private BigDecimal net;
+        private long lastFinished;
+
+        ShardWriter(Path dir, String prefix, ShardCheckpoint checkpoint, Calendar utc) {
+            this.dir = dir;
+            this.prefix = prefix;
+            this.utc = utc;
+            this.shard = checkpoint.shard();
+            this.part = checkpoint.nextPart();
+            this.customers = checkpoint.customers();
+            this.transfers = checkpoint.transfers();
+            this.lastFinished = checkpoint.lastAccount();
+        }
+
+        void row(ResultSet rs) throws SQLException, IOException {
+            long accountId = rs.getLong(1);
+            if (accountId != account) {
+                if (account != -1) {
+                    endCustomer();
+                }
+                account = accountId;
+                firstname = rs.getString(2);
+                lastname = rs.getString(3);
+                closing = rs.getBigDecimal(4);
+                net = BigDecimal.ZERO;
+                if (out == null) {
+                    openPart();
+                }
+            }
+            long transferId = rs.getLong(5);
+            if (rs.wasNull()) {
+                return;
+            }
+            Instant createdAt = rs.getTimestamp(6, utc).toInstant();
+            BigDecimal amount = rs.getBigDecimal(8);
+            net = net.add(amount);
+            transfers++;
+            line.setLength(0);
+            line.append("T,").append(account).append(",,,").append(transferId).append(',').append(createdAt)
+                    .append(',').append(rs.getLong(7)).append(',').append(amount.toPlainString()).append(",\n");
+            out.write(line);
+        }
+
+        void finish() throws IOException {
+            if (account != -1) {
+                endCustomer();
+            }
+            if (out != null) {
+                finishPart();
+            }
+            new ShardCheckpoint(shard, lastFinished, part, customers, transfers, true).write(dir);
+        }
+
+        // Leaves the unfinished part behind as .tmp; the next run deletes it
+        void abandon() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.warn("Could not close {}", outPath, e);
+                }
+            }
+        }
+
+        private void endCustomer() throws IOException {
+            line.setLength(0);
+            line.append("S,").append(account).append(',');
+            csv(firstname);
+            line.append(',');
+            csv(lastname);
+            line.append(",,,,").append(net.toPlainString()).append(',').append(closing.toPlainString()).append('\n');
+            out.write(line);
+            customers++;
+            lastFinished = account;
+            if (out.uncompressedBytes() >= partSize.toBytes()) {
+                finishPart();
+            }
+        }
+
+        private void openPart() throws IOException {
+            outPath = dir.resolve(String.format("%sp%05d.csv.gz", prefix, part));
+            out = new GzipChannelWriter(outPath.resolveSibling(outPath.getFileName() + ".tmp"),
+                    (int) bufferSize.toBytes(), compressionLevel);
+            out.write(HEADER);
+        }
+
+        // Closes the part, gives it its final name and records it in the checkpoint
+        private void finishPart() throws IOException {
+            out.close();
+            out = null;
+            Files.move(outPath.resolveSibling(outPath.getFileName() + ".tmp"), outPath,
+                    StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            part++;
+            new ShardCheckpoint(shard, lastFinished, part, customers, transfers, false).write(dir);
+        }
+
+        private void csv(String value) {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                line.append(value);
+                return;
+            }
+            line.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+}
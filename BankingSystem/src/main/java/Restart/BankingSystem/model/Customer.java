@@ -2,6 +2,8 @@ package Restart.BankingSystem.model;
 
 import jakarta.persistence.*;
 
+import java.math.BigDecimal;
+
 @Entity
 public class Customer {
     @Embedded
@@ -9,4 +11,48 @@ public class Customer {
     @Id
     private  long account_id;
 
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    // Bumped by every balance change; a concurrent change from another node fails the commit
+    // (see TransferService) instead of silently overwriting the balance
+    @Version
+    private long version;
+
+    public Customer() {
+    }
+
+    public Customer(long accountId, Str name, BigDecimal balance) {
+        this.account_id = accountId;
+        this.name = name;
+        this.balance = balance;
+    }
+
+    public Str getName() {
+        return name;
+    }
+
+    public void setName(Str name) {
+        this.name = name;
+    }
+
+    public long getAccountId() {
+        return account_id;
+    }
+
+    public void setAccountId(long accountId) {
+        this.account_id = accountId;
+    }
+
+    public BigDecimal getBalance() {
+        return balance;
+    }
+
+    public void setBalance(BigDecimal balance) {
+        this.balance = balance;
+    }
+
+    public long getVersion() {
+        return version;
+    }
 }
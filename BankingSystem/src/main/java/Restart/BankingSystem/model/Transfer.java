@@ -0,0 +1,60 @@
+package Restart.BankingSystem.model;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// One completed movement of money; written in the same transaction as the two balance changes
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_transfer_from", columnList = "from_account, created_at"),
+        @Index(name = "idx_transfer_to", columnList = "to_account, created_at")
+})
+public class Transfer {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "from_account", nullable = false)
+    private long fromAccount;
+
+    @Column(name = "to_account", nullable = false)
+    private long toAccount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Transfer() {
+    }
+
+    public Transfer(long fromAccount, long toAccount, BigDecimal amount, Instant createdAt) {
+        this.fromAccount = fromAccount;
+        this.toAccount = toAccount;
+        this.amount = amount;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getFromAccount() {
+        return fromAccount;
+    }
+
+    public long getToAccount() {
+        return toAccount;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,21 @@
+package Restart.BankingSystem.repo;
+
+import Restart.BankingSystem.model.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface CustomerRepo extends JpaRepository<Customer, Long> {
+
+    // Both sides of a transfer in one select, in account order
+    @Query("SELECT c FROM Customer c WHERE c.account_id IN :ids ORDER BY c.account_id")
+    List<Customer> findAccounts(@Param("ids") List<Long> ids);
+
+    @Query("SELECT COALESCE(SUM(c.balance), 0) FROM Customer c")
+    BigDecimal totalBalance();
+}
@@ -0,0 +1,9 @@
+package Restart.BankingSystem.repo;
+
+import Restart.BankingSystem.model.Transfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TransferRepo extends JpaRepository<Transfer, Long> {
+}
@@ -0,0 +1,12 @@
+package Restart.BankingSystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class AccountNotFoundException extends RuntimeException {
+
+    public AccountNotFoundException(long accountId) {
+        super("No account " + accountId);
+    }
+}
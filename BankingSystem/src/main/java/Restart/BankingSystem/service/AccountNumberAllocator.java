@@ -0,0 +1,183 @@
+package Restart.BankingSystem.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hands out account numbers from blocks of blockSize reserved in the account_block table, instead of
+// SELECT MAX(account_id) + 1 and retrying on duplicates. Reserving a block is one UPDATE in its own
+// short transaction (REQUIRES_NEW, so a rolled back account opening never gives its block back and
+// lets another node reuse it); inside a block, numbers come from an AtomicLong with no lock and no
+// database access. When a block is prefetchThreshold from its end the next one is reserved in the
+// background, so callers only wait on the database if they drain a whole block faster than one
+// round trip. Each node takes its own blocks, so nodes never wait for each other. The same UPDATE
+// also moves the row past every account number already in use (MAX(account_id) is one index lookup),
+// so numbers assigned by hand or before this class existed are never handed out again, with no
+// separate seeding step at startup.
+//
+// Numbers are unique but not gapless: the unused rest of a block is skipped when a node restarts.
+// With checkDigit=true every number is a base followed by its Luhn check digit.
+@Component
+public class AccountNumberAllocator implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(AccountNumberAllocator.class);
+
+    static final String TABLE = "account_block";
+    static final String SEQUENCE = "customer";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.account-number.block-size:1000}")
+    private int blockSize;
+
+    // Smallest base handed out; 100000000 gives ten-digit account numbers with the check digit
+    @Value("${bank.account-number.first-base:100000000}")
+    private long firstBase;
+
+    @Value("${bank.account-number.check-digit:true}")
+    private boolean checkDigit;
+
+    // Share of the block left when the next one is reserved
+    @Value("${bank.account-number.prefetch-threshold:0.25}")
+    private double prefetchThreshold;
+
+    private static final class Block {
+        final AtomicLong cursor;
+        final long end;
+        final long prefetchAt;
+
+        Block(long start, long end, long prefetchAt) {
+            this.cursor = new AtomicLong(start);
+            this.end = end;
+            this.prefetchAt = prefetchAt;
+        }
+    }
+
+    private volatile Block current;
+    // Guarded by this
+    private CompletableFuture<Block> prefetched;
+    private final ExecutorService prefetcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "account-block-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LongAdder blocksReserved = new LongAdder();
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                + "name VARCHAR(64) NOT NULL PRIMARY KEY, "
+                + "next_value BIGINT NOT NULL)");
+    }
+
+    public long next() {
+        while (true) {
+            Block block = current;
+            if (block != null) {
+                long base = block.cursor.getAndIncrement();
+                if (base < block.end) {
+                    // Exactly one caller draws this value
+                    if (base == block.prefetchAt) {
+                        prefetch();
+                    }
+                    return checkDigit ? LuhnCheckDigit.append(base) : base;
+                }
+            }
+            advance(block);
+        }
+    }
+
+    public long getBlocksReserved() {
+        return blocksReserved.sum();
+    }
+
+    // Only reached once per block; every other caller stays on the lock-free path above
+    private synchronized void advance(Block exhausted) {
+        if (current != exhausted) {
+            // Someone else already moved on
+            return;
+        }
+        Block next = null;
+        CompletableFuture<Block> pending = prefetched;
+        prefetched = null;
+        if (pending != null) {
+            try {
+                next = pending.join();
+            } catch (CompletionException e) {
+                log.warn("Prefetching the next account block failed, reserving it now", e.getCause());
+            }
+        }
+        current = next != null ? next : reserve();
+    }
+
+    private synchronized void prefetch() {
+        if (prefetched == null) {
+            prefetched = CompletableFuture.supplyAsync(this::reserve, prefetcher);
+        }
+    }
+
+    // One short transaction of its own: the UPDATE locks the row only until this commit
+    private Block reserve() {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long end = tx.execute(status -> {
+            if (advance() == 0) {
+                try {
+                    long first = Math.max(firstBase, jdbcTemplate.queryForObject(nextFreeBase(), Long.class));
+                    jdbcTemplate.update("INSERT INTO " + TABLE + " (name, next_value) VALUES (?, ?)",
+                            SEQUENCE, first + blockSize);
+                    log.info("{} '{}' starts at {}", TABLE, SEQUENCE, first);
+                } catch (DuplicateKeyException e) {
+                    // Another node created the row first; take the block after its one
+                    if (advance() != 1) {
+                        throw new IllegalStateException("No '" + SEQUENCE + "' row in " + TABLE, e);
+                    }
+                }
+            }
+            return jdbcTemplate.queryForObject("SELECT next_value FROM " + TABLE + " WHERE name = ?",
+                    Long.class, SEQUENCE);
+        });
+        blocksReserved.increment();
+        long start = end - blockSize;
+        long prefetchAt = Math.max(start, end - Math.max(1, (long) (blockSize * prefetchThreshold)));
+        return new Block(start, end, prefetchAt);
+    }
+
+    // Reserves the next block, starting no lower than nextFreeBase(); 0 when the row does not exist yet
+    private int advance() {
+        return jdbcTemplate.update("UPDATE " + TABLE + " SET next_value = GREATEST(next_value, (" + nextFreeBase()
+                + ")) + ? WHERE name = ?", blockSize, SEQUENCE);
+    }
+
+    // First base above every account number in the customer table
+    private String nextFreeBase() {
+        return checkDigit
+                ? "SELECT FLOOR(COALESCE(MAX(account_id), 0) / 10) + 1 FROM customer"
+                : "SELECT COALESCE(MAX(account_id), 0) + 1 FROM customer";
+    }
+
+    @PreDestroy
+    void shutdown() {
+        prefetcher.shutdownNow();
+    }
+}
@@ -0,0 +1,35 @@
+package Restart.BankingSystem.service;
+
+import Restart.BankingSystem.dto.OpenAccountRequest;
+import Restart.BankingSystem.model.Customer;
+import Restart.BankingSystem.model.Str;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+
+@Service
+public class AccountService {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    // The number comes from the allocator, so this is a single INSERT: no MAX(account_id), no retry
+    @Transactional
+    public Customer open(OpenAccountRequest request) {
+        Str name = new Str();
+        name.setFirstname(request.firstname());
+        name.setLastname(request.lastname());
+        BigDecimal opening = request.openingBalance() == null ? BigDecimal.ZERO : request.openingBalance();
+        Customer customer = new Customer(allocator.next(), name, opening);
+        // persist, not save(): with an assigned id save() would merge and SELECT first
+        entityManager.persist(customer);
+        return customer;
+    }
+}
@@ -0,0 +1,12 @@
+package Restart.BankingSystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(long accountId) {
+        super("Insufficient funds on account " + accountId);
+    }
+}
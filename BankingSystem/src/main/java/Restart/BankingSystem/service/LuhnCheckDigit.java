@@ -0,0 +1,39 @@
+package Restart.BankingSystem.service;
+
+// Luhn (mod 10) check digit, as used on card numbers: catches every single-digit typo and most swaps
+// of adjacent digits before an account number reaches the database
+public final class LuhnCheckDigit {
+
+    private LuhnCheckDigit() {
+    }
+
+    // The digit to append to base
+    public static int compute(long base) {
+        if (base < 0) {
+            throw new IllegalArgumentException("Negative base " + base);
+        }
+        int sum = 0;
+        // The rightmost digit of base ends up second from the right, so it is doubled
+        boolean doubled = true;
+        for (long rest = base; rest > 0; rest /= 10) {
+            int digit = (int) (rest % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static long append(long base) {
+        return base * 10 + compute(base);
+    }
+
+    public static boolean isValid(long number) {
+        return number >= 0 && compute(number / 10) == number % 10;
+    }
+}
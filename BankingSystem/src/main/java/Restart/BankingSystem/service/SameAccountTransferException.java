@@ -0,0 +1,12 @@
+package Restart.BankingSystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class SameAccountTransferException extends RuntimeException {
+
+    public SameAccountTransferException(long accountId) {
+        super("Cannot transfer from account " + accountId + " to itself");
+    }
+}
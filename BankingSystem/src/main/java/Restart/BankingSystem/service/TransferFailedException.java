@@ -0,0 +1,13 @@
+package Restart.BankingSystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Still conflicting after every retry, or the accounts stayed locked too long; nothing was moved
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TransferFailedException extends RuntimeException {
+
+    public TransferFailedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,193 @@
+package Restart.BankingSystem.service;
+
+import Restart.BankingSystem.dto.TransferReceipt;
+import Restart.BankingSystem.dto.TransferRequest;
+import Restart.BankingSystem.dto.TransferStats;
+import Restart.BankingSystem.model.Customer;
+import Restart.BankingSystem.model.Transfer;
+import Restart.BankingSystem.repo.CustomerRepo;
+import Restart.BankingSystem.repo.TransferRepo;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Moves money between two accounts. Three layers keep hot accounts correct and moving:
+//   1. Striped in-process locks: transfers touching the same account on this node wait for each other
+//      here instead of colliding in the database. Both stripes are taken in index order, so two
+//      transfers A->B and B->A cannot deadlock.
+//   2. Optimistic versioning (Customer.version): a concurrent change from another node makes the
+//      commit fail instead of overwriting a balance. The rows are read in account order and
+//      hibernate.order_updates writes them in id order, so the database locks them in the same
+//      order everywhere.
+//   3. Bounded retries: a conflicting attempt is rolled back and retried after an exponential backoff
+//      with jitter, at most maxAttempts times.
+@Service
+public class TransferService {
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private TransferRepo transferRepo;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${bank.transfer.lock-stripes:1024}")
+    private int lockStripes;
+
+    @Value("${bank.transfer.lock-timeout:2s}")
+    private Duration lockTimeout;
+
+    @Value("${bank.transfer.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${bank.transfer.initial-backoff:2ms}")
+    private Duration initialBackoff;
+
+    @Value("${bank.transfer.max-backoff:100ms}")
+    private Duration maxBackoff;
+
+    private ReentrantLock[] stripes;
+    private int stripeMask;
+    private TransactionTemplate tx;
+
+    private final LongAdder transfers = new LongAdder();
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder lockTimeouts = new LongAdder();
+    private final LongAdder gaveUp = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        // A power of two, so the stripe is a mask instead of a division
+        int size = Integer.highestOneBit(Math.max(1, lockStripes - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        stripeMask = size - 1;
+        tx = new TransactionTemplate(transactionManager);
+    }
+
+    public TransferReceipt transfer(TransferRequest request) {
+        // Rejected for every caller: it would record a transfer that moves nothing
+        if (request.from() == request.to()) {
+            throw new SameAccountTransferException(request.from());
+        }
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                int current = attempt;
+                TransferReceipt receipt = underStripeLocks(request.from(), request.to(),
+                        () -> tx.execute(status -> move(request, current)));
+                transfers.increment();
+                return receipt;
+            } catch (ConcurrencyFailureException e) {
+                // Optimistic version conflict, or a lock wait/deadlock reported by the database
+                if (attempt >= maxAttempts) {
+                    gaveUp.increment();
+                    throw new TransferFailedException("Transfer still conflicting after " + attempt + " attempts", e);
+                }
+                retries.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    public TransferStats toGetStats() {
+        return new TransferStats(transfers.sum(), attempts.sum(), retries.sum(), lockTimeouts.sum(), gaveUp.sum());
+    }
+
+    private TransferReceipt move(TransferRequest request, int attempt) {
+        long low = Math.min(request.from(), request.to());
+        long high = Math.max(request.from(), request.to());
+        List<Customer> accounts = customerRepo.findAccounts(List.of(low, high));
+        Customer from = account(accounts, request.from());
+        Customer to = account(accounts, request.to());
+        if (from.getBalance().compareTo(request.amount()) < 0) {
+            throw new InsufficientFundsException(request.from());
+        }
+        from.setBalance(from.getBalance().subtract(request.amount()));
+        to.setBalance(to.getBalance().add(request.amount()));
+        Transfer transfer = transferRepo.save(new Transfer(request.from(), request.to(), request.amount(), Instant.now()));
+        return new TransferReceipt(transfer.getId(), request.from(), request.to(), request.amount(),
+                from.getBalance(), to.getBalance(), transfer.getCreatedAt(), attempt);
+    }
+
+    private static Customer account(List<Customer> accounts, long accountId) {
+        for (Customer account : accounts) {
+            if (account.getAccountId() == accountId) {
+                return account;
+            }
+        }
+        throw new AccountNotFoundException(accountId);
+    }
+
+    private <T> T underStripeLocks(long a, long b, Supplier<T> work) {
+        int sa = stripe(a);
+        int sb = stripe(b);
+        ReentrantLock first = stripes[Math.min(sa, sb)];
+        ReentrantLock second = sa == sb ? null : stripes[Math.max(sa, sb)];
+        lock(first);
+        try {
+            if (second != null) {
+                lock(second);
+            }
+            try {
+                return work.get();
+            } finally {
+                if (second != null) {
+                    second.unlock();
+                }
+            }
+        } finally {
+            first.unlock();
+        }
+    }
+
+    private void lock(ReentrantLock lock) {
+        boolean locked;
+        try {
+            locked = lock.tryLock(lockTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferFailedException("Interrupted while waiting for the accounts", e);
+        }
+        if (!locked) {
+            lockTimeouts.increment();
+            throw new TransferFailedException("Accounts stayed busy for " + lockTimeout.toMillis() + " ms", null);
+        }
+    }
+
+    // Fibonacci hashing: consecutive account numbers land on unrelated stripes
+    private int stripe(long accountId) {
+        long h = accountId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & stripeMask;
+    }
+
+    // Full jitter: a random wait up to initialBackoff * 2^(attempt-1), capped at maxBackoff
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toNanos(), initialBackoff.toNanos() << Math.min(attempt - 1, 20));
+        long nanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransferFailedException("Interrupted while backing off", e);
+        }
+    }
+}
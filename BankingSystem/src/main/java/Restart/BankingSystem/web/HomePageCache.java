@@ -0,0 +1,148 @@
+package Restart.BankingSystem.web;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+// The welcome page rendered once and kept as ready-to-send bytes, one variant per content coding.
+// Each variant has its own strong ETag: the hash of the page plus the coding, as two encodings of the
+// same page are different representations. The page is rendered again when the template file or the
+// model changes; that is checked at most once per check-interval, so a request normally costs a map
+// lookup and a copy of the bytes.
+//
+// Only identity and gzip variants are produced: there is no Brotli encoder on the classpath. Variants
+// are looked up by content coding (see HomeController), so adding "br" only needs an encoder here.
+@Component
+public class HomePageCache {
+
+    private static final Logger log = LoggerFactory.getLogger(HomePageCache.class);
+
+    static final String TEMPLATE = "welcome";
+
+    public record Variant(String coding, byte[] body, String etag) {
+    }
+
+    public record Page(Map<String, Variant> variants, long templateModified, int modelHash) {
+
+        public Variant variant(String coding) {
+            return variants.get(coding);
+        }
+    }
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Autowired
+    private WelcomeContent content;
+
+    @Autowired
+    private ResourceLoader resourceLoader;
+
+    @Value("${spring.thymeleaf.prefix:classpath:/templates/}")
+    private String templatePrefix;
+
+    @Value("${spring.thymeleaf.suffix:.html}")
+    private String templateSuffix;
+
+    @Value("${bank.home.check-interval:2s}")
+    private Duration checkInterval;
+
+    private volatile Page page;
+    private volatile long nextCheck;
+
+    public Page current() {
+        Page current = page;
+        if (current != null && System.nanoTime() - nextCheck < 0) {
+            return current;
+        }
+        synchronized (this) {
+            current = page;
+            if (current != null && System.nanoTime() - nextCheck < 0) {
+                return current;
+            }
+            long templateModified = templateModified();
+            int modelHash = content.model().hashCode();
+            if (current == null || current.templateModified() != templateModified || current.modelHash() != modelHash) {
+                if (current != null) {
+                    log.info("Welcome page changed, rendering it again");
+                    templateEngine.clearTemplateCacheFor(TEMPLATE);
+                }
+                current = render(templateModified, modelHash);
+                page = current;
+            }
+            nextCheck = System.nanoTime() + checkInterval.toNanos();
+            return current;
+        }
+    }
+
+    // Renders on the next request whatever the template and model look like
+    public synchronized void invalidate() {
+        page = null;
+        templateEngine.clearTemplateCacheFor(TEMPLATE);
+    }
+
+    private Page render(long templateModified, int modelHash) {
+        Context context = new Context(Locale.ENGLISH, content.model());
+        byte[] html = templateEngine.process(TEMPLATE, context).getBytes(StandardCharsets.UTF_8);
+        String hash = hash(html);
+        Map<String, Variant> variants = new LinkedHashMap<>();
+        variants.put("identity", new Variant("identity", html, "\"" + hash + "\""));
+        variants.put("gzip", new Variant("gzip", gzip(html), "\"" + hash + "-gzip\""));
+        return new Page(Collections.unmodifiableMap(variants), templateModified, modelHash);
+    }
+
+    // 0 when the template is inside a jar or cannot be looked at: it cannot change then anyway
+    private long templateModified() {
+        Resource template = resourceLoader.getResource(templatePrefix + TEMPLATE + templateSuffix);
+        try {
+            return template.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Compressed once, so the slowest level costs nothing per request
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,59 @@
+package Restart.BankingSystem.web;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// The model of templates/welcome.html. Built once; LinkedHashMaps keep the lists in the same order on
+// every node (Map.of iterates in a different order per JVM, which would give every node its own ETag).
+@Component
+public class WelcomeContent {
+
+    private final Map<String, Object> model = build();
+
+    public Map<String, Object> model() {
+        return model;
+    }
+
+    private static Map<String, Object> build() {
+        Map<String, Object> model = new LinkedHashMap<>();
+        model.put("title", "🌟🌍 WELCOME TO KRM BANK – WHERE YOUR DREAMS MEET OPPORTUNITIES! 🌍🌟");
+
+        model.put("message", ordered(
+                "greeting", "📢 Dear Valued Client, 🎉✨ A Grand Welcome to KRM BANK! ✨🎉",
+                "welcomeNote", "We are absolutely thrilled and honored to have you onboard! 🤩💙",
+                "motto", "At KRM BANK, we don't just offer banking services – we offer trust, security, and a brighter financial future for you! 💰🚀"
+        ));
+
+        model.put("whyChooseUs", ordered(
+                "24x7 Banking", "Effortless Banking, Anytime, Anywhere! 🌎💻",
+                "Fast & Secure", "Lightning-Fast & Super Secure Transactions! ⚡🔒",
+                "Personalized Solutions", "Tailored Financial Solutions Just for YOU! 🎯🏆"
+        ));
+
+        model.put("journey", ordered(
+                "startToday", "Your Journey with KRM BANK Starts Today! 🚀",
+                "customerAsFamily", "You are family! 🏡💖"
+        ));
+
+        model.put("thankYou", "💎 Thank You for Trusting KRM BANK! 💎");
+
+        model.put("contact", ordered(
+                "closingNote", "💙 With Warm Regards,",
+                "bankName", "📌 KRM BANK – Empowering Your Financial Future 💡💰🏦",
+                "customerSupport", "📞 7530022429 📲📞",
+                "email", "📧 thekrmx@gmail.com 💻🌍"
+        ));
+        return Collections.unmodifiableMap(model);
+    }
+
+    private static Map<String, String> ordered(String... keysAndValues) {
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+}
@@ -0,0 +1,108 @@
+package Restart.BankingSystem;
+
+import Restart.BankingSystem.dto.OpenAccountRequest;
+import Restart.BankingSystem.model.Customer;
+import Restart.BankingSystem.model.Str;
+import Restart.BankingSystem.repo.CustomerRepo;
+import Restart.BankingSystem.service.AccountNumberAllocator;
+import Restart.BankingSystem.service.AccountService;
+import Restart.BankingSystem.service.LuhnCheckDigit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accountnumbers;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "bank.account-number.block-size=100"
+})
+@ActiveProfiles("test")
+class AccountNumberAllocatorTests {
+
+    @Autowired
+    private AccountNumberAllocator allocator;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Test
+    void luhnCheckDigit() {
+        assertThat(LuhnCheckDigit.compute(7992739871L)).isEqualTo(3);
+        assertThat(LuhnCheckDigit.isValid(79927398713L)).isTrue();
+        // A wrong digit and two swapped neighbours
+        assertThat(LuhnCheckDigit.isValid(79927398712L)).isFalse();
+        assertThat(LuhnCheckDigit.isValid(79927398173L)).isFalse();
+    }
+
+    // Each allocator hands out its current block from memory; a second one built from the same beans only
+    // shares the account_block row with the first, so blocks must never overlap between them
+    @Test
+    void numbersAreUniqueAcrossThreadsAndAllocators() throws Exception {
+        AccountNumberAllocator[] allocators = {allocator, beanFactory.createBean(AccountNumberAllocator.class)};
+        long blocksBefore = allocator.getBlocksReserved();
+        Set<Long> numbers = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            AccountNumberAllocator owner = allocators[t % 2];
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    assertThat(numbers.add(owner.next())).isTrue();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertThat(numbers).hasSize(8000);
+        assertThat(numbers).allSatisfy(number -> {
+            assertThat(LuhnCheckDigit.isValid(number)).isTrue();
+            assertThat(number).isGreaterThanOrEqualTo(1_000_000_000L);
+        });
+        // One UPDATE per hundred numbers, give or take what the other tests left in the first allocator's
+        // blocks and the block each allocator has prefetched or only partly used
+        long blocks = allocators[0].getBlocksReserved() - blocksBefore + allocators[1].getBlocksReserved();
+        assertThat(blocks).isBetween(78L, 84L);
+    }
+
+    @Test
+    void startsPastNumbersAlreadyInUse() {
+        customerRepo.save(new Customer(98_765_432_109L, new Str(), BigDecimal.ZERO));
+        allocator.afterSingletonsInstantiated();
+        AccountNumberAllocator restarted = beanFactory.createBean(AccountNumberAllocator.class);
+
+        assertThat(restarted.next()).isGreaterThan(98_765_432_109L);
+    }
+
+    @Test
+    void opensAccountsWithAllocatedNumbers() {
+        Customer first = accountService.open(new OpenAccountRequest("Ada", "Lovelace", new BigDecimal("10.00")));
+        Customer second = accountService.open(new OpenAccountRequest("Alan", "Turing", null));
+
+        assertThat(first.getAccountId()).isNotEqualTo(second.getAccountId());
+        assertThat(LuhnCheckDigit.isValid(first.getAccountId())).isTrue();
+        assertThat(customerRepo.findById(second.getAccountId())).get()
+                .extracting(Customer::getBalance).satisfies(balance -> assertThat(balance).isEqualByComparingTo("0"));
+    }
+}
@@ -0,0 +1,159 @@
+package Restart.BankingSystem;
+
+import Restart.BankingSystem.web.HomePageCache;
+import Restart.BankingSystem.web.WelcomeContent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:homepage;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class HomePageTests {
+
+    private static final Logger log = LoggerFactory.getLogger(HomePageTests.class);
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private HomePageCache cache;
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Autowired
+    private WelcomeContent content;
+
+    @Test
+    void rendersTheWelcomeTemplateWithAStrongEtag() throws Exception {
+        mvc.perform(get("/home/"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/html"))
+                .andExpect(header().string(HttpHeaders.ETAG, matchesPattern("\"[^\"]+\"")))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(containsString("WELCOME TO KRM BANK")));
+    }
+
+    @Test
+    void servesThePrecompressedVariantWithItsOwnEtag() throws Exception {
+        MvcResult plain = mvc.perform(get("/home/")).andReturn();
+        MvcResult gzip = mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        byte[] compressed = gzip.getResponse().getContentAsByteArray();
+        assertThat(compressed.length).isLessThan(plain.getResponse().getContentAsByteArray().length);
+        assertThat(gunzip(compressed)).isEqualTo(plain.getResponse().getContentAsString(StandardCharsets.UTF_8));
+        assertThat(gzip.getResponse().getHeader(HttpHeaders.ETAG))
+                .isNotEqualTo(plain.getResponse().getHeader(HttpHeaders.ETAG));
+
+        mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, identity"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "*, gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "deflate, *;q=0.5"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void conditionalGetsAreAnsweredWith304() throws Exception {
+        String etag = mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andExpect(header().exists(HttpHeaders.CACHE_CONTROL))
+                .andExpect(content().bytes(new byte[0]));
+        mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+        // The gzip ETag does not validate the uncompressed page
+        mvc.perform(get("/home/").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void renderingAgainGivesTheSameEtag() {
+        String before = cache.current().variant("identity").etag();
+        cache.invalidate();
+        assertThat(cache.current().variant("identity").etag()).isEqualTo(before);
+    }
+
+    // Pages/sec when every request renders the template (what the controller did before) against requests/sec
+    // for the cached page and for 304s:
+    //   mvn test -Dtest=HomePageTests -Dbench.home=true -Dbench.requests=20000
+    @Test
+    @EnabledIfSystemProperty(named = "bench.home", matches = "true")
+    void throughputBeforeAndAfterCaching() throws Exception {
+        int requests = Integer.getInteger("bench.requests", 20_000);
+        String etag = cache.current().variant("gzip").etag();
+        for (int i = 0; i < requests / 10; i++) {
+            renderPerRequest();
+            mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            renderPerRequest();
+        }
+        double rendered = requests / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                    .andExpect(status().isOk());
+        }
+        double cached = requests / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            mvc.perform(get("/home/").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, etag))
+                    .andExpect(status().isNotModified());
+        }
+        double notModified = requests / ((System.nanoTime() - start) / 1_000_000_000.0);
+
+        // The "before" figure leaves out the request handling that the other two include
+        log.info("render per request: {} pages/sec", Math.round(rendered));
+        log.info("cached page (gzip): {} requests/sec ({}x)", Math.round(cached), String.format("%.1f", cached / rendered));
+        log.info("304 Not Modified: {} requests/sec ({}x)", Math.round(notModified),
+                String.format("%.1f", notModified / rendered));
+    }
+
+    private String renderPerRequest() {
+        return templateEngine.process("welcome", new Context(Locale.ENGLISH, content.model()));
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
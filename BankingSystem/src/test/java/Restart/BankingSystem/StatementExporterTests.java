@@ -0,0 +1,281 @@
+package Restart.BankingSystem;
+
+import Restart.BankingSystem.dto.StatementExportStatus;
+import Restart.BankingSystem.dto.TransferRequest;
+import Restart.BankingSystem.export.StatementExporter;
+import Restart.BankingSystem.model.Customer;
+import Restart.BankingSystem.model.Str;
+import Restart.BankingSystem.model.Transfer;
+import Restart.BankingSystem.repo.CustomerRepo;
+import Restart.BankingSystem.repo.TransferRepo;
+import Restart.BankingSystem.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statements;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "bank.export.shards=3",
+        "bank.export.threads=2",
+        "bank.export.fetch-size=7",
+        // Small parts and buffers, so every shard rotates parts and every buffer fills up
+        "bank.export.part-size=1KB",
+        "bank.export.buffer-size=512B"
+})
+@ActiveProfiles("test")
+class StatementExporterTests {
+
+    private static final int CUSTOMERS = 60;
+    private static final BigDecimal OPENING = new BigDecimal("1000.00");
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+    private static final Path EXPORTS = exports();
+
+    @DynamicPropertySource
+    static void exportDirectory(DynamicPropertyRegistry registry) {
+        registry.add("bank.export.directory", EXPORTS::toString);
+    }
+
+    @Autowired
+    private StatementExporter exporter;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private TransferRepo transferRepo;
+
+    @Autowired
+    private TransferService transferService;
+
+    private int marchTransfers;
+
+    // Opening balance plus everything up to the end of March, per account
+    private final Map<Long, BigDecimal> closing = new HashMap<>();
+
+    @BeforeEach
+    void seed() throws IOException {
+        // Every test starts with no export on disk
+        try (Stream<Path> paths = Files.walk(EXPORTS)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).filter(path -> !path.equals(EXPORTS)).toList()) {
+                Files.delete(path);
+            }
+        }
+        transferRepo.deleteAll();
+        customerRepo.deleteAll();
+
+        List<Transfer> transfers = new ArrayList<>();
+        Instant march = Instant.parse("2025-03-01T00:00:00Z");
+        for (int i = 0; i < 200; i++) {
+            long from = 1 + i % CUSTOMERS;
+            long to = 1 + (i * 7 + 3) % CUSTOMERS;
+            transfers.add(new Transfer(from, to, new BigDecimal(i % 50 + ".25"), march.plusSeconds(i * 3600L)));
+        }
+        marchTransfers = transfers.size();
+        // Outside the month: the last second of February and the first of April
+        transfers.add(new Transfer(1, 2, BigDecimal.ONE, Instant.parse("2025-02-28T23:59:59Z")));
+        transfers.add(new Transfer(1, 2, BigDecimal.ONE, Instant.parse("2025-04-01T00:00:00Z")));
+        transferRepo.saveAll(transfers);
+
+        // Balances as if every transfer above had gone through TransferService
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        closing.clear();
+        for (long id = 1; id <= CUSTOMERS; id++) {
+            balances.put(id, OPENING);
+            closing.put(id, OPENING);
+        }
+        for (Transfer transfer : transfers) {
+            balances.merge(transfer.getFromAccount(), transfer.getAmount().negate(), BigDecimal::add);
+            balances.merge(transfer.getToAccount(), transfer.getAmount(), BigDecimal::add);
+            if (transfer.getCreatedAt().isBefore(MARCH.plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant())) {
+                closing.merge(transfer.getFromAccount(), transfer.getAmount().negate(), BigDecimal::add);
+                closing.merge(transfer.getToAccount(), transfer.getAmount(), BigDecimal::add);
+            }
+        }
+        List<Customer> customers = new ArrayList<>();
+        for (long id = 1; id <= CUSTOMERS; id++) {
+            Str name = new Str();
+            name.setFirstname(id == 7 ? "Smith, \"Jr\"" : "First" + id);
+            name.setLastname("Last" + id);
+            customers.add(new Customer(id, name, balances.get(id)));
+        }
+        customerRepo.saveAll(customers);
+    }
+
+    @Test
+    void writesEveryCustomerAndBothSidesOfEveryTransferOfTheMonth() throws IOException {
+        StatementExportStatus status = exporter.export(MARCH);
+
+        assertThat(status.shards()).isEqualTo(3);
+        assertThat(status.completedShards()).isEqualTo(3);
+        assertThat(status.customers()).isEqualTo(CUSTOMERS);
+        assertThat(status.transfers()).isEqualTo(2L * marchTransfers);
+        // Several parts per shard, none left half-written
+        assertThat(status.files()).hasSizeGreaterThan(3).allMatch(name -> name.endsWith(".csv.gz"));
+
+        List<String[]> rows = rows(MARCH);
+        List<String[]> summaries = rows.stream().filter(row -> row[0].equals("S")).toList();
+        List<String[]> lines = rows.stream().filter(row -> row[0].equals("T")).toList();
+        assertThat(summaries).hasSize(CUSTOMERS);
+        assertThat(summaries.stream().map(row -> row[1]).distinct()).hasSize(CUSTOMERS);
+        assertThat(lines).hasSize(2 * marchTransfers);
+
+        // Every transfer leaves one account and enters another, and each summary adds up its lines
+        assertThat(lines.stream().map(row -> new BigDecimal(row[7])).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isZero();
+        Map<String, BigDecimal> net = new HashMap<>();
+        for (String[] line : lines) {
+            net.merge(line[1], new BigDecimal(line[7]), BigDecimal::add);
+        }
+        for (String[] summary : summaries) {
+            assertThat(new BigDecimal(summary[7])).isEqualByComparingTo(net.getOrDefault(summary[1], BigDecimal.ZERO));
+            assertThat(new BigDecimal(summary[8])).isEqualByComparingTo(closing.get(Long.parseLong(summary[1])));
+        }
+    }
+
+    @Test
+    void shardsHoldContiguousAccountRanges() throws IOException {
+        exporter.export(MARCH);
+
+        long previousShardMax = Long.MIN_VALUE;
+        for (int shard = 0; shard < 3; shard++) {
+            String prefix = String.format("statements-2025-03-s%03d-", shard);
+            List<Long> accounts = new ArrayList<>();
+            try (Stream<Path> paths = Files.list(EXPORTS.resolve(MARCH.toString()))) {
+                for (Path path : paths.filter(path -> path.getFileName().toString().startsWith(prefix)).sorted().toList()) {
+                    rows(path).stream().filter(row -> row[0].equals("S")).forEach(row -> accounts.add(Long.parseLong(row[1])));
+                }
+            }
+            // About a third of the customers each, in order, after the previous shard's
+            assertThat(accounts).hasSize(CUSTOMERS / 3).isSorted();
+            assertThat(accounts.get(0)).isGreaterThan(previousShardMax);
+            previousShardMax = accounts.get(accounts.size() - 1);
+        }
+    }
+
+    @Test
+    void closingBalanceLeavesOutTransfersAfterTheMonth() throws IOException {
+        // Today's transfer changes today's balances, not March's
+        transferService.transfer(new TransferRequest(1, 3, new BigDecimal("40.00")));
+
+        exporter.export(MARCH);
+
+        for (String[] summary : rows(MARCH).stream().filter(row -> row[0].equals("S")).toList()) {
+            assertThat(new BigDecimal(summary[8])).isEqualByComparingTo(closing.get(Long.parseLong(summary[1])));
+        }
+        assertThat(customerRepo.findById(1L).orElseThrow().getBalance())
+                .isEqualByComparingTo(closing.get(1L).subtract(BigDecimal.ONE).subtract(new BigDecimal("40.00")));
+    }
+
+    @Test
+    void quotesNamesThatNeedIt() throws IOException {
+        exporter.export(MARCH);
+
+        assertThat(text(MARCH)).contains("S,7,\"Smith, \"\"Jr\"\"\",Last7,");
+    }
+
+    @Test
+    void resumesAfterTheLastCheckpointedPart() throws IOException {
+        YearMonth period = MARCH;
+        exporter.export(period);
+        Path dir = EXPORTS.resolve(period.toString());
+        String expected = text(period);
+
+        // Pretend shard 1 stopped while writing its second part: only its first part is checkpointed
+        Path first = dir.resolve("statements-2025-03-s001-p00000.csv.gz");
+        List<String[]> firstRows = rows(first);
+        String lastAccount = firstRows.stream().filter(row -> row[0].equals("S")).reduce((a, b) -> b).orElseThrow()[1];
+        long customers = firstRows.stream().filter(row -> row[0].equals("S")).count();
+        long transfers = firstRows.stream().filter(row -> row[0].equals("T")).count();
+        try (Stream<Path> paths = Files.list(dir)) {
+            for (Path path : paths.toList()) {
+                String name = path.getFileName().toString();
+                if (name.startsWith("statements-2025-03-s001-") && !name.endsWith("p00000.csv.gz")) {
+                    Files.delete(path);
+                }
+            }
+        }
+        Files.writeString(dir.resolve("statements-2025-03-s001-p00001.csv.gz.tmp"), "half a part");
+        Files.writeString(dir.resolve("shard-001.checkpoint"), "lastAccount=" + lastAccount + "\nnextPart=1\n"
+                + "customers=" + customers + "\ntransfers=" + transfers + "\ndone=false\n");
+        long untouched = Files.getLastModifiedTime(dir.resolve("statements-2025-03-s000-p00000.csv.gz")).toMillis();
+
+        StatementExportStatus status = exporter.export(period);
+
+        assertThat(status.completedShards()).isEqualTo(3);
+        assertThat(status.customers()).isEqualTo(CUSTOMERS);
+        assertThat(status.transfers()).isEqualTo(2L * marchTransfers);
+        assertThat(text(period)).isEqualTo(expected);
+        assertThat(Files.exists(dir.resolve("statements-2025-03-s001-p00001.csv.gz.tmp"))).isFalse();
+        // Finished shards are not written again
+        assertThat(Files.getLastModifiedTime(dir.resolve("statements-2025-03-s000-p00000.csv.gz")).toMillis())
+                .isEqualTo(untouched);
+    }
+
+    private static List<String[]> rows(YearMonth period) throws IOException {
+        return rows(text(period));
+    }
+
+    private static List<String[]> rows(Path file) throws IOException {
+        return rows(read(file));
+    }
+
+    // Splits on commas outside quotes; drops the header lines
+    private static List<String[]> rows(String text) {
+        List<String[]> rows = new ArrayList<>();
+        for (String line : text.split("\n")) {
+            if (!line.startsWith("record,")) {
+                rows.add(line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1));
+            }
+        }
+        return rows;
+    }
+
+    // All parts of the month in file order
+    private static String text(YearMonth period) throws IOException {
+        StringBuilder text = new StringBuilder();
+        try (Stream<Path> paths = Files.list(EXPORTS.resolve(period.toString()))) {
+            for (Path path : paths.filter(path -> path.toString().endsWith(".csv.gz")).sorted().toList()) {
+                text.append(read(path));
+            }
+        }
+        return text.toString();
+    }
+
+    private static String read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Path exports() {
+        try {
+            return Files.createTempDirectory("statements");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package Restart.BankingSystem;
+
+import Restart.BankingSystem.dto.TransferRequest;
+import Restart.BankingSystem.dto.TransferStats;
+import Restart.BankingSystem.model.Customer;
+import Restart.BankingSystem.model.Str;
+import Restart.BankingSystem.repo.CustomerRepo;
+import Restart.BankingSystem.service.InsufficientFundsException;
+import Restart.BankingSystem.service.TransferFailedException;
+import Restart.BankingSystem.service.TransferService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Transfers between accounts picked with a Zipf distribution (a few accounts take most of the traffic) and
+// logs transfers/sec and the retry rate. Threads are shared out over bench.instances TransferServices; each
+// has its own lock stripes, as each deployed copy of the bank would, so only conflicts between instances
+// reach the database row locks and the retry loop. Set bench.url to measure on MySQL instead of H2, with a
+// database of its own: the test profile creates customer and transfer tables there and drops them after:
+//   mvn test -Dtest=TransferBenchmarkTests -Dbench.transfers=true -Dbench.count=50000 -Dbench.zipf=1.1 -Dbench.instances=2 \
+//       -Dbench.url="jdbc:mysql://localhost:3306/bank_bench" -Dbench.password=... \
+//       -Dbench.driver=com.mysql.cj.jdbc.Driver -Dbench.dialect=org.hibernate.dialect.MySQLDialect
+@EnabledIfSystemProperty(named = "bench.transfers", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${bench.url:jdbc:h2:mem:bankbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1}",
+        "spring.datasource.username=${bench.user:sa}",
+        "spring.datasource.password=${bench.password:}",
+        "spring.datasource.driver-class-name=${bench.driver:org.h2.Driver}",
+        "spring.jpa.database-platform=${bench.dialect:org.hibernate.dialect.H2Dialect}",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+@ActiveProfiles("test")
+class TransferBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(TransferBenchmarkTests.class);
+
+    private static final BigDecimal OPENING = new BigDecimal("1000000.00");
+
+    @Autowired
+    private TransferService service;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void transfersUnderZipfSkew() throws Exception {
+        int accounts = Integer.getInteger("bench.accounts", 10_000);
+        int count = Integer.getInteger("bench.count", 50_000);
+        int threads = Integer.getInteger("bench.threads", 32);
+        int instanceCount = Integer.getInteger("bench.instances", 2);
+        double skew = Double.parseDouble(System.getProperty("bench.zipf", "1.1"));
+        openAccounts(accounts);
+
+        TransferService[] instances = new TransferService[instanceCount];
+        instances[0] = service;
+        for (int i = 1; i < instanceCount; i++) {
+            instances[i] = beanFactory.createBean(TransferService.class);
+        }
+        double[] cdf = zipf(accounts, skew);
+        // Warm-up
+        run(instances, cdf, threads, count / 10);
+        TransferStats before = total(instances);
+
+        long start = System.nanoTime();
+        long failed = run(instances, cdf, threads, count);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        TransferStats after = total(instances);
+
+        long done = after.transfers() - before.transfers();
+        long attempts = after.attempts() - before.attempts();
+        long retries = after.retries() - before.retries();
+        log.info("{} accounts, zipf {}, {} threads over {} instances", accounts, skew, threads, instanceCount);
+        log.info("{} transfers in {} s: {} transfers/sec, retry rate {}% ({} retries), {} gave up, {} lock timeouts",
+                done, String.format("%.1f", seconds), Math.round(done / seconds),
+                String.format("%.2f", attempts == 0 ? 0 : 100.0 * retries / attempts), retries,
+                after.gaveUp() - before.gaveUp(), after.lockTimeouts() - before.lockTimeouts());
+
+        assertThat(customerRepo.totalBalance()).isEqualByComparingTo(OPENING.multiply(BigDecimal.valueOf(accounts)));
+        assertThat(failed).isLessThan(count / 100);
+    }
+
+    // Returns the number of transfers that failed for good
+    private long run(TransferService[] instances, double[] cdf, int threads, int count) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        LongAdder failed = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            TransferService instance = instances[t % instances.length];
+            SplittableRandom random = new SplittableRandom(t);
+            int share = count / threads;
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < share; i++) {
+                    long from = account(cdf, random);
+                    long to = account(cdf, random);
+                    if (from == to) {
+                        continue;
+                    }
+                    try {
+                        instance.transfer(new TransferRequest(from, to, BigDecimal.ONE));
+                    } catch (TransferFailedException | InsufficientFundsException e) {
+                        failed.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        return failed.sum();
+    }
+
+    private void openAccounts(int accounts) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (int first = 1; first <= accounts; first += 1000) {
+            int from = first;
+            tx.executeWithoutResult(status -> {
+                for (long id = from; id < from + 1000 && id <= accounts; id++) {
+                    entityManager.persist(new Customer(id, new Str(), OPENING));
+                }
+            });
+        }
+    }
+
+    private static TransferStats total(TransferService[] instances) {
+        long transfers = 0, attempts = 0, retries = 0, lockTimeouts = 0, gaveUp = 0;
+        for (TransferService instance : instances) {
+            TransferStats stats = instance.toGetStats();
+            transfers += stats.transfers();
+            attempts += stats.attempts();
+            retries += stats.retries();
+            lockTimeouts += stats.lockTimeouts();
+            gaveUp += stats.gaveUp();
+        }
+        return new TransferStats(transfers, attempts, retries, lockTimeouts, gaveUp);
+    }
+
+    // Cumulative distribution of rank k ~ 1 / k^skew over 1..accounts
+    private static double[] zipf(int accounts, double skew) {
+        double[] cdf = new double[accounts];
+        double sum = 0;
+        for (int k = 1; k <= accounts; k++) {
+            sum += 1 / Math.pow(k, skew);
+            cdf[k - 1] = sum;
+        }
+        for (int k = 0; k < accounts; k++) {
+            cdf[k] /= sum;
+        }
+        return cdf;
+    }
+
+    private static long account(double[] cdf, SplittableRandom random) {
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return (index >= 0 ? index : -index - 1) + 1;
+    }
+}
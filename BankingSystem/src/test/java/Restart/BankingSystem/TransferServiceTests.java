@@ -0,0 +1,124 @@
+package Restart.BankingSystem;
+
+import Restart.BankingSystem.dto.TransferReceipt;
+import Restart.BankingSystem.dto.TransferRequest;
+import Restart.BankingSystem.model.Customer;
+import Restart.BankingSystem.model.Str;
+import Restart.BankingSystem.repo.CustomerRepo;
+import Restart.BankingSystem.service.AccountNotFoundException;
+import Restart.BankingSystem.service.InsufficientFundsException;
+import Restart.BankingSystem.service.SameAccountTransferException;
+import Restart.BankingSystem.service.TransferService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:transfers;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "bank.transfer.max-attempts=50"
+})
+@ActiveProfiles("test")
+class TransferServiceTests {
+
+    private static final BigDecimal OPENING = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferService service;
+
+    @Autowired
+    private CustomerRepo customerRepo;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @BeforeEach
+    void openAccounts() {
+        List<Customer> accounts = new ArrayList<>();
+        for (long id = 1; id <= 4; id++) {
+            accounts.add(new Customer(id, new Str(), OPENING));
+        }
+        customerRepo.deleteAll();
+        customerRepo.saveAll(accounts);
+    }
+
+    @Test
+    void movesMoneyAndRecordsTheTransfer() {
+        TransferReceipt receipt = service.transfer(new TransferRequest(1, 2, new BigDecimal("250.50")));
+
+        assertThat(receipt.fromBalance()).isEqualByComparingTo("749.50");
+        assertThat(receipt.toBalance()).isEqualByComparingTo("1250.50");
+        assertThat(receipt.transferId()).isPositive();
+        assertThat(receipt.attempts()).isEqualTo(1);
+        assertThat(customerRepo.findById(1L)).get().extracting(Customer::getVersion).isEqualTo(1L);
+    }
+
+    @Test
+    void rejectsOverdraftsAndUnknownAccounts() {
+        assertThatThrownBy(() -> service.transfer(new TransferRequest(1, 2, new BigDecimal("1000.01"))))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThatThrownBy(() -> service.transfer(new TransferRequest(1, 99, BigDecimal.ONE)))
+                .isInstanceOf(AccountNotFoundException.class);
+        assertThat(customerRepo.findById(1L)).get().extracting(Customer::getBalance)
+                .satisfies(balance -> assertThat(balance).isEqualByComparingTo(OPENING));
+    }
+
+    @Test
+    void rejectsTransfersToTheSameAccount() {
+        assertThatThrownBy(() -> service.transfer(new TransferRequest(1, 1, BigDecimal.ONE)))
+                .isInstanceOf(SameAccountTransferException.class);
+        assertThat(customerRepo.findById(1L)).get().extracting(Customer::getBalance)
+                .satisfies(balance -> assertThat(balance).isEqualByComparingTo(OPENING));
+    }
+
+    // Stripe locks only order transfers inside one TransferService. A second instance of the bean has
+    // stripes of its own, so transfers it runs on accounts 1 and 2 collide with the first instance's on
+    // the customer rows themselves. There the @Version check on Customer turns a lost update into an
+    // optimistic locking failure, and the ConcurrencyFailureException retry loop keeps the sum intact
+    @Test
+    void concurrentTransfersOnHotAccountsKeepTheTotal() throws Exception {
+        TransferService secondInstance = beanFactory.createBean(TransferService.class);
+        TransferService[] instances = {service, secondInstance};
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            TransferService instance = instances[t % 2];
+            futures.add(pool.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 100; i++) {
+                    // Mostly between accounts 1 and 2, in both directions
+                    long from = random.nextInt(10) < 8 ? 1 + random.nextInt(2) : 1 + random.nextInt(4);
+                    long to = from == 1 ? 2 : 1;
+                    try {
+                        instance.transfer(new TransferRequest(from, to, BigDecimal.ONE));
+                    } catch (InsufficientFundsException e) {
+                        // Possible once one side has been drained; the total still has to hold
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        assertThat(customerRepo.totalBalance()).isEqualByComparingTo(OPENING.multiply(BigDecimal.valueOf(4)));
+        assertThat(customerRepo.findAll()).allSatisfy(account ->
+                assertThat(account.getBalance().signum()).isGreaterThanOrEqualTo(0));
+        assertThat(service.toGetStats().gaveUp() + secondInstance.toGetStats().gaveUp()).isZero();
+    }
+}
@@ -0,0 +1,107 @@
+package Restart.CP.jmh;
+
+import Restart.CP.CpApplication;
+import Restart.CP.model.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Compares the StudentWriteStrategies write paths against H2 in MySQL mode.
+// Throughput is insert calls per second (multiply by rows for rows/sec); run with -prof gc (the exec:exec default) for gc.alloc.rate.norm.
+// One Spring context per parameter combination, because batch_size and order_inserts are SessionFactory settings.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class StudentWriteBenchmark {
+
+    public enum Strategy { PERSIST_FLUSH_CLEAR, SAVE_ALL, STATELESS, JDBC_BATCH }
+
+    @Param({"PERSIST_FLUSH_CLEAR", "SAVE_ALL", "STATELESS", "JDBC_BATCH"})
+    public Strategy strategy;
+
+    @Param({"20", "100", "1000"})
+    public int batchSize;
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"true", "false"})
+    public boolean orderInserts;
+
+    private ConfigurableApplicationContext context;
+    private StudentWriteStrategies service;
+    private JdbcTemplate jdbcTemplate;
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void startContext() {
+        context = new SpringApplicationBuilder(CpApplication.class, StudentWriteStrategies.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.jpa.properties.hibernate.use_sql_comments=false",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "spring.jpa.properties.hibernate.order_inserts=" + orderInserts,
+                        "logging.level.root=WARN")
+                .run();
+        service = context.getBean(StudentWriteStrategies.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    // Keep the table size constant between iterations
+    @Setup(Level.Iteration)
+    public void truncate() {
+        jdbcTemplate.execute("TRUNCATE TABLE student");
+    }
+
+    // Fresh, unmanaged entities for every call; persist assigns ids, so lists cannot be reused
+    @Setup(Level.Invocation)
+    public void buildRows() {
+        students = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            students.add(new Student("Student " + i, "DEP" + (i % 16)));
+        }
+    }
+
+    @Benchmark
+    public void insert() {
+        switch (strategy) {
+            case PERSIST_FLUSH_CLEAR -> service.persistInBatches(students, batchSize);
+            case SAVE_ALL -> service.saveAllStudents(students);
+            case STATELESS -> service.insertStateless(students, batchSize);
+            case JDBC_BATCH -> service.insertJdbcBatch(students, batchSize);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopContext() {
+        context.close();
+    }
+}
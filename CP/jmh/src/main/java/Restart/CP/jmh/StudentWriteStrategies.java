@@ -0,0 +1,89 @@
+package Restart.CP.jmh;
+
+import Restart.CP.generator.UuidV7Generator;
+import Restart.CP.model.Student;
+import Restart.CP.repo.StudentRepo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+// The write paths compared by StudentWriteBenchmark. Registered with the benchmark's own context only,
+// so the application never carries them.
+public class StudentWriteStrategies {
+
+    @Autowired
+    private StudentRepo repo;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // persist() with flush/clear every batchSize rows, all in one transaction
+    @Transactional
+    public void persistInBatches(List<Student> students, int batchSize) {
+        for (int i = 0; i < students.size(); i++) {
+            entityManager.persist(students.get(i));
+            if ((i + 1) % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Spring Data saveAll(); batching comes only from hibernate.jdbc.batch_size
+    @Transactional
+    public void saveAllStudents(List<Student> students) {
+        repo.saveAll(students);
+    }
+
+    // StatelessSession insert(): no persistence context at all
+    public void insertStateless(List<Student> students, int batchSize) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(batchSize);
+            Transaction tx = session.beginTransaction();
+            try {
+                for (Student student : students) {
+                    session.insert(student);
+                }
+                tx.commit();
+            } catch (RuntimeException e) {
+                tx.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // Plain JDBC addBatch()/executeBatch(), bypassing Hibernate
+    @Transactional
+    public void insertJdbcBatch(List<Student> students, int batchSize) {
+        jdbcTemplate.batchUpdate("INSERT INTO student (id, name, dep) VALUES (?, ?, ?)", students, batchSize,
+                (ps, student) -> {
+                    UUID id = UuidV7Generator.next();
+                    ps.setBytes(1, ByteBuffer.allocate(16)
+                            .putLong(id.getMostSignificantBits())
+                            .putLong(id.getLeastSignificantBits())
+                            .array());
+                    ps.setString(2, student.getName());
+                    ps.setString(3, student.getDep());
+                });
+    }
+}
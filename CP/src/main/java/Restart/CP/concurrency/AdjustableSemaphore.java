@@ -0,0 +1,29 @@
+package Restart.CP.concurrency;
+
+import java.util.concurrent.Semaphore;
+
+// Fair semaphore whose permit count can follow a pool that is resized at runtime
+class AdjustableSemaphore extends Semaphore {
+
+    // Written under the lock in resize(), read per request without it
+    private volatile int limit;
+
+    AdjustableSemaphore(int limit) {
+        super(limit, true);
+        this.limit = limit;
+    }
+
+    synchronized void resize(int newLimit) {
+        if (newLimit > limit) {
+            release(newLimit - limit);
+        } else if (newLimit < limit) {
+            // Permits already handed out drain naturally; new acquirers see the lower count
+            reducePermits(limit - newLimit);
+        }
+        limit = newLimit;
+    }
+
+    int limit() {
+        return limit;
+    }
+}
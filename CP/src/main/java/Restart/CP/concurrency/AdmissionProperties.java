@@ -0,0 +1,22 @@
+package Restart.CP.concurrency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Settings for ConnectionAdmissionFilter (cp.admission.*)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cp.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = false;
+
+    // How long a request may queue for a permit; keep it below spring.datasource.hikari.connection-timeout
+    private Duration maxWait = Duration.ofSeconds(10);
+
+    // Permits on top of the pool size, for requests that hold a permit but have not asked for a connection yet
+    private int extraPermits = 0;
+}
@@ -0,0 +1,150 @@
+package Restart.CP.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Lets at most as many requests into the controllers as the Hikari pools have connections.
+// With virtual threads Tomcat no longer caps concurrency at 200, so without this thousands of requests
+// would each sit in Hikari's getConnection() until connection-timeout. Here they wait in a fair FIFO
+// queue that costs almost nothing per virtual thread, and get a 503 only after cp.admission.max-wait.
+// A request that goes async (/Show/stream) keeps its permit until the async request completes.
+@Component
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "cp.admission", name = "enabled", havingValue = "true")
+public class ConnectionAdmissionFilter extends OncePerRequestFilter {
+
+    private final List<HikariDataSource> dataSources;
+    private final AdmissionProperties properties;
+    private final AdjustableSemaphore permits;
+
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public ConnectionAdmissionFilter(List<HikariDataSource> dataSources, AdmissionProperties properties,
+                                     MeterRegistry registry) {
+        this.dataSources = dataSources;
+        this.properties = properties;
+        this.permits = new AdjustableSemaphore(currentLimit());
+
+        this.waitTimer = Timer.builder("cp.admission.wait")
+                .description("Time requests spent queued for an admission permit")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.rejected = Counter.builder("cp.admission.rejected")
+                .description("Requests turned away after waiting max-wait")
+                .register(registry);
+        Gauge.builder("cp.admission.queued", permits, AdjustableSemaphore::getQueueLength).register(registry);
+        Gauge.builder("cp.admission.limit", permits, AdjustableSemaphore::limit).register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    // Async dispatches pass through without a permit of their own: the initial dispatch still holds one
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // Follow HikariPoolAutoSizer if it has resized the pools since the last request
+        int limit = currentLimit();
+        if (limit != permits.limit()) {
+            permits.resize(limit);
+        }
+
+        long start = System.nanoTime();
+        boolean admitted;
+        try {
+            admitted = permits.tryAcquire(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        if (!admitted) {
+            rejected.increment();
+            response.setHeader("Retry-After", "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Server busy, retry shortly");
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new PermitRelease());
+            } else {
+                permits.release();
+            }
+        }
+    }
+
+    // Gives the permit back once, whichever of complete, error or timeout comes first
+    private final class PermitRelease implements AsyncListener {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        // Async started again from an async dispatch: listeners have to register with the new context
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private int currentLimit() {
+        int total = properties.getExtraPermits();
+        for (HikariDataSource dataSource : dataSources) {
+            total += dataSource.getHikariConfigMXBean().getMaximumPoolSize();
+        }
+        return Math.max(1, total);
+    }
+}
@@ -0,0 +1,89 @@
+package Restart.CP.concurrency;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+// Listens to the JFR jdk.VirtualThreadPinned event in-process and reports pinning that happens inside
+// JDBC code (driver, Hikari, Hibernate's JDBC layer). A pinned virtual thread holds its carrier thread
+// for the whole blocking call, which quietly brings back the platform-thread limit.
+@Component
+@ConditionalOnProperty(prefix = "cp.virtual-threads.pinning-monitor", name = "enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final List<String> JDBC_PACKAGES = List.of(
+            "java.sql.", "com.mysql.", "com.zaxxer.hikari.", "org.hibernate.engine.jdbc.", "org.h2.");
+
+    private final Counter jdbcPinned;
+    private final Counter otherPinned;
+
+    @Value("${cp.virtual-threads.pinning-monitor.threshold:20ms}")
+    private Duration threshold;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry registry) {
+        this.jdbcPinned = Counter.builder("cp.virtual.threads.pinned").tag("source", "jdbc").register(registry);
+        this.otherPinned = Counter.builder("cp.virtual.threads.pinned").tag("source", "other").register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(threshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {})", threshold);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedFrame jdbcFrame = firstJdbcFrame(event.getStackTrace());
+        if (jdbcFrame == null) {
+            otherPinned.increment();
+            return;
+        }
+        jdbcPinned.increment();
+        log.warn("Carrier thread pinned for {} ms inside JDBC at {}.{}:{}",
+                event.getDuration().toMillis(),
+                jdbcFrame.getMethod().getType().getName(),
+                jdbcFrame.getMethod().getName(),
+                jdbcFrame.getLineNumber());
+    }
+
+    private static RecordedFrame firstJdbcFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return null;
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            for (String prefix : JDBC_PACKAGES) {
+                if (type.startsWith(prefix)) {
+                    return frame;
+                }
+            }
+        }
+        return null;
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
@@ -1,28 +1,89 @@
 package Restart.CP.controller;
 
+import Restart.CP.dto.IngestFormat;
+import Restart.CP.dto.IngestReport;
+import Restart.CP.dto.LoadReport;
+import Restart.CP.dto.StudentPage;
 import Restart.CP.model.Student;
+import Restart.CP.service.StudentIngestService;
+import Restart.CP.service.StudentPartitionedLoader;
 import Restart.CP.service.StudentService;
+import Restart.CP.service.StudentStreamService;
 import jakarta.persistence.Entity;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 public class StudentController {
     @Autowired
     StudentService service;
+    @Autowired
+    StudentIngestService ingestService;
+    @Autowired
+    StudentStreamService streamService;
+    @Autowired
+    StudentPartitionedLoader partitionedLoader;
+
+    @Value("${cp.stream.timeout:30m}")
+    Duration streamTimeout;
+
+    private static final int MAX_PAGE_SIZE = 1000;
+
     @PostMapping("/add")
     public Student toAdd(@RequestBody Student student)
     {
         return service.addStudent(student);
     }
+    // Keyset paged: follow "next" with ?after=<token> until it comes back null
     @GetMapping("/Show")
-    public List< Student> toDisplay()
+    public StudentPage toDisplay(@RequestParam(required = false) String after,
+                                 @RequestParam(defaultValue = "100") int limit)
+    {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return service.getStudentPage(after, limit);
+    }
+
+    // Whole table as one chunked JSON array, streamed from a JDBC cursor. Written from the async task itself
+    // so the long timeout applies to this response only, not to every async request
+    @GetMapping("/Show/stream")
+    public WebAsyncTask<Void> toStream(HttpServletResponse response)
+    {
+        return new WebAsyncTask<>(streamTimeout.toMillis(), () -> {
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            streamService.writeAll(response.getOutputStream());
+            return null;
+        });
+    }
+
+    // Bulk load: body is NDJSON ({"name":..,"dep":..} per line) or CSV (name,dep), read as it arrives
+    @PostMapping(value = "/ingest", consumes = {"application/x-ndjson", "text/csv"})
+    public IngestReport toIngest(HttpServletRequest request,
+                                 @RequestParam(required = false) Integer batchSize) throws IOException
+    {
+        IngestFormat format = IngestFormat.fromContentType(request.getContentType());
+        return ingestService.ingest(request.getInputStream(), format, batchSize);
+    }
+
+    // Same body formats as /ingest, written by several workers in independent partition transactions
+    @PostMapping(value = "/ingest/parallel", consumes = {"application/x-ndjson", "text/csv"})
+    public LoadReport toIngestParallel(HttpServletRequest request) throws IOException, InterruptedException
     {
-        return   service.BatchProcessing();
+        IngestFormat format = IngestFormat.fromContentType(request.getContentType());
+        return partitionedLoader.load(request.getInputStream(), format);
     }
 }
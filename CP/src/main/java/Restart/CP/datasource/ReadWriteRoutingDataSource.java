@@ -0,0 +1,123 @@
+package Restart.CP.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+
+// Sends connections for read-only transactions to the replica pool and everything else to the primary.
+// Falls back to the primary when the replica pool is saturated (all connections busy and threads
+// already waiting) or when it fails to hand out a connection; after a failure the replica is skipped
+// for replicaRetryAfter. Must sit behind a LazyConnectionDataSourceProxy so the read-only flag of the
+// transaction is known by the time the physical connection is fetched.
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final HikariDataSource primary;
+    private final HikariDataSource replica;
+    private final long replicaRetryAfterNanos;
+
+    private volatile long replicaDownUntil;
+
+    private final Counter primaryRoute;
+    private final Counter replicaRoute;
+    private final Counter fallbackSaturated;
+    private final Counter fallbackDown;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, HikariDataSource replica,
+                                      Duration replicaRetryAfter, MeterRegistry registry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.replicaRetryAfterNanos = replicaRetryAfter.toNanos();
+        this.primaryRoute = route(registry, "primary");
+        this.replicaRoute = route(registry, "replica");
+        this.fallbackSaturated = route(registry, "fallback_saturated");
+        this.fallbackDown = route(registry, "fallback_down");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(HikariDataSource::getConnection);
+    }
+
+    // Routed like getConnection(); the credentials go to whichever pool is picked
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(pool -> pool.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            primaryRoute.increment();
+            return source.get(primary);
+        }
+        if (System.nanoTime() - replicaDownUntil < 0) {
+            fallbackDown.increment();
+            return source.get(primary);
+        }
+        if (saturated(replica)) {
+            fallbackSaturated.increment();
+            return source.get(primary);
+        }
+        try {
+            Connection connection = source.get(replica);
+            replicaRoute.increment();
+            return connection;
+        } catch (SQLFeatureNotSupportedException e) {
+            // The pool does not take this kind of request (plain Hikari refuses per-call credentials);
+            // the primary would refuse it too, and the replica is not down
+            throw e;
+        } catch (SQLException e) {
+            replicaDownUntil = System.nanoTime() + replicaRetryAfterNanos;
+            log.warn("Replica unavailable, reading from primary for the next {} ms: {}",
+                    replicaRetryAfterNanos / 1_000_000, e.getMessage());
+            fallbackDown.increment();
+            return source.get(primary);
+        }
+    }
+
+    // unwrap() reaches the primary pool, so code sizing work to "the" pool keeps working
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private static boolean saturated(HikariDataSource pool) {
+        HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+        return mxBean != null
+                && mxBean.getThreadsAwaitingConnection() > 0
+                && mxBean.getActiveConnections() >= pool.getMaximumPoolSize();
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+
+        Connection get(HikariDataSource pool) throws SQLException;
+    }
+
+    private static Counter route(MeterRegistry registry, String route) {
+        return Counter.builder("cp.datasource.route")
+                .description("Connections handed out per route")
+                .tag("route", route)
+                .register(registry);
+    }
+}
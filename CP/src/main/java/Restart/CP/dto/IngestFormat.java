@@ -0,0 +1,14 @@
+package Restart.CP.dto;
+
+// Body formats accepted by the streaming ingest endpoint
+public enum IngestFormat {
+    NDJSON,
+    CSV;
+
+    public static IngestFormat fromContentType(String contentType) {
+        if (contentType != null && contentType.toLowerCase().startsWith("text/csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+}
@@ -0,0 +1,18 @@
+package Restart.CP.dto;
+
+import java.util.List;
+
+// Summary returned once an ingest request has been fully written
+public record IngestReport(long accepted,
+                           long rejected,
+                           long elapsedMillis,
+                           double rowsPerSecond,
+                           List<String> rejectedSamples) {
+
+    public static IngestReport of(long accepted, long rejected, List<String> rejectedSamples, long elapsedNanos) {
+        long millis = elapsedNanos / 1_000_000;
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        double rate = seconds > 0 ? accepted / seconds : accepted;
+        return new IngestReport(accepted, rejected, millis, Math.round(rate * 10) / 10.0, rejectedSamples);
+    }
+}
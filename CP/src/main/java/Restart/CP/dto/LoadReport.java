@@ -0,0 +1,14 @@
+package Restart.CP.dto;
+
+import java.util.List;
+
+// Result of a partitioned parallel load; failedPartitions lists the partitions that still failed after all retries
+public record LoadReport(long rowsWritten,
+                         long rejected,
+                         int partitions,
+                         int parallelism,
+                         long retries,
+                         List<String> failedPartitions,
+                         long elapsedMillis,
+                         double rowsPerSecond) {
+}
@@ -0,0 +1,9 @@
+package Restart.CP.dto;
+
+import Restart.CP.model.Student;
+
+import java.util.List;
+
+// One keyset page; next is null on the last page, otherwise pass it back as ?after= to continue
+public record StudentPage(List<Student> items, String next) {
+}
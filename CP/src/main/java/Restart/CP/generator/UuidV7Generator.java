@@ -0,0 +1,66 @@
+package Restart.CP.generator;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.util.EnumSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// UUIDv7 (RFC 9562): 48-bit unix millis | version 7 | 12-bit counter | variant | 62 random bits.
+// The leading timestamp makes new keys land at the right edge of the clustered index instead of
+// on a random page, and the counter keeps ids from one JVM strictly increasing within a millisecond.
+public class UuidV7Generator implements BeforeExecutionGenerator {
+
+    private static final int COUNTER_BITS = 12;
+
+    private static final Sequence SEQUENCE = new Sequence();
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+                           EventType eventType) {
+        return next();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+
+    public static UUID next() {
+        return SEQUENCE.next(System.currentTimeMillis());
+    }
+
+    // Counter state behind next(); the application shares one, tests make their own and drive the clock
+    public static final class Sequence {
+
+        // (millis << 12) | counter of the last id handed out
+        private final AtomicLong last = new AtomicLong();
+
+        public UUID next(long now) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long state;
+            long prev;
+            do {
+                prev = last.get();
+                if (now > prev >>> COUNTER_BITS) {
+                    // New millisecond: start the counter at a random point in its lower half so there is room to count up
+                    state = (now << COUNTER_BITS) | random.nextInt(1 << (COUNTER_BITS - 1));
+                } else {
+                    // Same (or earlier, if the clock stepped back) millisecond: keep counting; an overflow borrows the next millisecond
+                    state = prev + 1;
+                }
+            } while (!last.compareAndSet(prev, state));
+
+            long millis = state >>> COUNTER_BITS;
+            long counter = state & ((1L << COUNTER_BITS) - 1);
+
+            long msb = (millis << 16) | 0x7000L | counter;
+            long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+            return new UUID(msb, lsb);
+        }
+    }
+}
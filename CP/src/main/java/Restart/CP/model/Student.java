@@ -1,10 +1,12 @@
 package Restart.CP.model;
 
+import Restart.CP.generator.UuidV7;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.hibernate.annotations.UuidGenerator;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.util.UUID;
 
@@ -14,9 +16,11 @@ import java.util.UUID;
 @NoArgsConstructor
 public class Student {
 
+    // Time-ordered UUIDv7 stored as BINARY(16): inserts append to the end of the InnoDB primary key
     @Id
-    @UuidGenerator
-    @GeneratedValue
+    @UuidV7
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(columnDefinition = "BINARY(16)")
     private UUID id;
 
     private String name;
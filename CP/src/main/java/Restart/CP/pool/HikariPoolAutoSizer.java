@@ -0,0 +1,133 @@
+package Restart.CP.pool;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Resizes every Hikari pool in the context at runtime, within cp.pool.autosize bounds.
+// Each sample reads the pool MXBean (active/idle/pending) and the acquire-time timer Hikari
+// publishes to Micrometer, asks PoolSizingPolicy what to do, and applies it through HikariConfigMXBean.
+@Component
+@EnableConfigurationProperties(PoolAutoSizeProperties.class)
+@ConditionalOnProperty(prefix = "cp.pool.autosize", name = "enabled", havingValue = "true")
+public class HikariPoolAutoSizer {
+
+    private static final Logger log = LoggerFactory.getLogger(HikariPoolAutoSizer.class);
+
+    private final List<HikariDataSource> dataSources;
+    private final PoolAutoSizeProperties properties;
+    private final MeterRegistry registry;
+
+    private final Map<String, PoolState> pools = new ConcurrentHashMap<>();
+
+    public HikariPoolAutoSizer(List<HikariDataSource> dataSources, PoolAutoSizeProperties properties,
+                               MeterRegistry registry) {
+        this.dataSources = dataSources;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Scheduled(fixedDelayString = "${cp.pool.autosize.sample-interval-ms:2000}")
+    public void sample() {
+        for (HikariDataSource dataSource : dataSources) {
+            HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                continue; // pool not started yet
+            }
+            PoolState state = pools.computeIfAbsent(dataSource.getPoolName(), name -> new PoolState(name, dataSource));
+            state.sample(pool, dataSource.getHikariConfigMXBean());
+        }
+    }
+
+    private class PoolState {
+        private final String poolName;
+        private final PoolSizingPolicy policy = new PoolSizingPolicy(properties);
+        private final Map<PoolSizingPolicy.Action, Counter> decisions = new ConcurrentHashMap<>();
+
+        private long lastAcquireCount;
+        private double lastAcquireTotalMs;
+        private volatile double lastAcquireMs;
+
+        PoolState(String poolName, HikariDataSource dataSource) {
+            this.poolName = poolName;
+            HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+            Gauge.builder("cp.pool.autosize.maximum", config, HikariConfigMXBean::getMaximumPoolSize)
+                    .tag("pool", poolName)
+                    .description("Maximum pool size currently set by the auto sizer")
+                    .register(registry);
+            Gauge.builder("cp.pool.autosize.minimum.idle", config, HikariConfigMXBean::getMinimumIdle)
+                    .tag("pool", poolName)
+                    .register(registry);
+            Gauge.builder("cp.pool.autosize.acquire.ms", this, state -> state.lastAcquireMs)
+                    .tag("pool", poolName)
+                    .description("Average connection acquire time over the last sample interval")
+                    .register(registry);
+        }
+
+        void sample(HikariPoolMXBean pool, HikariConfigMXBean config) {
+            PoolSizingPolicy.Sample sample = new PoolSizingPolicy.Sample(
+                    pool.getActiveConnections(),
+                    pool.getIdleConnections(),
+                    pool.getTotalConnections(),
+                    pool.getThreadsAwaitingConnection(),
+                    acquireMillisSinceLastSample());
+
+            PoolSizingPolicy.Decision decision = policy.evaluate(sample,
+                    config.getMaximumPoolSize(), config.getMinimumIdle(), System.nanoTime());
+
+            switch (decision.action()) {
+                case GROW -> {
+                    config.setMaximumPoolSize(decision.maximumPoolSize());
+                    config.setMinimumIdle(decision.minimumIdle());
+                }
+                case SHRINK -> {
+                    // Lower minimum-idle first so the housekeeper may retire idle connections
+                    config.setMinimumIdle(decision.minimumIdle());
+                    config.setMaximumPoolSize(decision.maximumPoolSize());
+                }
+                case HOLD -> {
+                }
+            }
+            if (decision.action() != PoolSizingPolicy.Action.HOLD) {
+                log.info("Pool {} {} to max={} minIdle={} ({})", poolName, decision.action(),
+                        decision.maximumPoolSize(), decision.minimumIdle(), decision.reason());
+            }
+
+            decisions.computeIfAbsent(decision.action(), action -> Counter.builder("cp.pool.autosize.decisions")
+                    .tag("pool", poolName)
+                    .tag("action", action.name().toLowerCase())
+                    .register(registry)).increment();
+        }
+
+        // Delta of Hikari's own hikaricp.connections.acquire timer since the previous sample
+        private double acquireMillisSinceLastSample() {
+            Timer timer = registry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+            if (timer == null) {
+                return 0;
+            }
+            long count = timer.count();
+            double totalMs = timer.totalTime(TimeUnit.MILLISECONDS);
+            long deltaCount = count - lastAcquireCount;
+            double deltaMs = totalMs - lastAcquireTotalMs;
+            lastAcquireCount = count;
+            lastAcquireTotalMs = totalMs;
+            lastAcquireMs = deltaCount > 0 ? deltaMs / deltaCount : 0;
+            return lastAcquireMs;
+        }
+    }
+}
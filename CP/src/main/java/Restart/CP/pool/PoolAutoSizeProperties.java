@@ -0,0 +1,39 @@
+package Restart.CP.pool;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Bounds and thresholds for HikariPoolAutoSizer (cp.pool.autosize.*)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cp.pool.autosize")
+public class PoolAutoSizeProperties {
+
+    private boolean enabled = false;
+
+    // Hard limits the controller never goes past
+    private int minPoolSize = 5;
+    private int maxPoolSize = 60;
+
+    private int growStep = 5;
+    private int shrinkStep = 2;
+
+    // Consecutive samples needed before acting; shrinking is deliberately slower than growing
+    private int growAfterSamples = 2;
+    private int shrinkAfterSamples = 15;
+
+    // Grow when the average connection wait over the last interval is above this
+    private long acquireLatencyHighMs = 50;
+
+    // Shrink only while active connections stay at or below this share of the pool
+    private double shrinkUtilization = 0.3;
+
+    // minimum-idle follows the pool as a share of maximum-pool-size
+    private double idleRatio = 0.25;
+
+    // Quiet period after every resize so one burst does not cause grow/shrink flapping
+    private Duration cooldown = Duration.ofSeconds(30);
+}
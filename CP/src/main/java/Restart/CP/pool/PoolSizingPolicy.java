@@ -0,0 +1,70 @@
+package Restart.CP.pool;
+
+// Pure decision logic for one pool, so it can be exercised without a database.
+// Hysteresis comes from three things: separate grow/shrink thresholds, a streak of samples
+// before acting, and a cooldown after each resize.
+public class PoolSizingPolicy {
+
+    public enum Action { GROW, SHRINK, HOLD }
+
+    public record Sample(int active, int idle, int total, int pending, double acquireMillis) {
+    }
+
+    public record Decision(Action action, int maximumPoolSize, int minimumIdle, String reason) {
+    }
+
+    private final PoolAutoSizeProperties properties;
+
+    private int pressureStreak;
+    private int slackStreak;
+    private long lastResizeNanos = Long.MIN_VALUE;
+
+    public PoolSizingPolicy(PoolAutoSizeProperties properties) {
+        this.properties = properties;
+    }
+
+    public Decision evaluate(Sample sample, int currentMax, int currentMinIdle, long nowNanos) {
+        boolean pressure = sample.pending() > 0 || sample.acquireMillis() > properties.getAcquireLatencyHighMs();
+        boolean slack = sample.pending() == 0
+                && sample.acquireMillis() <= properties.getAcquireLatencyHighMs() / 2.0
+                && sample.active() <= currentMax * properties.getShrinkUtilization();
+
+        pressureStreak = pressure ? pressureStreak + 1 : 0;
+        slackStreak = slack ? slackStreak + 1 : 0;
+
+        if (lastResizeNanos != Long.MIN_VALUE && nowNanos - lastResizeNanos < properties.getCooldown().toNanos()) {
+            return hold(currentMax, currentMinIdle, "cooldown");
+        }
+
+        if (pressureStreak >= properties.getGrowAfterSamples() && currentMax < properties.getMaxPoolSize()) {
+            int target = Math.min(properties.getMaxPoolSize(),
+                    currentMax + Math.max(properties.getGrowStep(), sample.pending()));
+            return resize(Action.GROW, target, nowNanos,
+                    "pending=" + sample.pending() + " acquireMs=" + Math.round(sample.acquireMillis()));
+        }
+
+        if (slackStreak >= properties.getShrinkAfterSamples() && currentMax > properties.getMinPoolSize()) {
+            // Never shrink below what is in use right now
+            int target = Math.max(properties.getMinPoolSize(),
+                    Math.max(sample.active() + 1, currentMax - properties.getShrinkStep()));
+            if (target < currentMax) {
+                return resize(Action.SHRINK, target, nowNanos, "active=" + sample.active());
+            }
+        }
+
+        return hold(currentMax, currentMinIdle, "steady");
+    }
+
+    private Decision resize(Action action, int target, long nowNanos, String reason) {
+        lastResizeNanos = nowNanos;
+        pressureStreak = 0;
+        slackStreak = 0;
+        int minIdle = (int) Math.ceil(target * properties.getIdleRatio());
+        minIdle = Math.max(1, Math.min(target, minIdle));
+        return new Decision(action, target, minIdle, reason);
+    }
+
+    private static Decision hold(int currentMax, int currentMinIdle, String reason) {
+        return new Decision(Action.HOLD, currentMax, currentMinIdle, reason);
+    }
+}
@@ -1,11 +1,23 @@
 package Restart.CP.repo;
 
 import Restart.CP.model.Student;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface StudentRepo extends JpaRepository<Student, UUID> {
+
+    // Keyset paging on the primary key: no OFFSET and no COUNT(*), each page is an index range scan.
+    // Pass PageRequest.of(0, n) only to cap the row count.
+    @Query("SELECT s FROM Student s ORDER BY s.id")
+    List<Student> findFirstPage(Pageable limit);
+
+    @Query("SELECT s FROM Student s WHERE s.id > :after ORDER BY s.id")
+    List<Student> findPageAfter(@Param("after") UUID after, Pageable limit);
 }
@@ -0,0 +1,11 @@
+package Restart.CP.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidTokenException extends RuntimeException {
+    public InvalidTokenException(String token) {
+        super("Invalid continuation token: " + token);
+    }
+}
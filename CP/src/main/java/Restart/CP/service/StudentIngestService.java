@@ -0,0 +1,68 @@
+package Restart.CP.service;
+
+import Restart.CP.dto.IngestFormat;
+import Restart.CP.dto.IngestReport;
+import Restart.CP.model.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@Service
+public class StudentIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentIngestService.class);
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${cp.ingest.batch-size:1000}")
+    private int defaultBatchSize;
+
+    // Streams the body into the student table through a StatelessSession:
+    // no persistence context, no dirty checking, rows go out in JDBC batches of batchSize.
+    // The whole load is one transaction, so a failure part way leaves nothing behind.
+    public IngestReport ingest(InputStream body, IngestFormat format, Integer batchSize) throws IOException {
+        int size = batchSize != null && batchSize > 0 ? batchSize : defaultBatchSize;
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+
+        long start = System.nanoTime();
+        long accepted = 0;
+
+        try (StudentRowReader reader = new StudentRowReader(body, format, mapper);
+             StatelessSession session = sessionFactory.openStatelessSession()) {
+            session.setJdbcBatchSize(size);
+            Transaction tx = session.beginTransaction();
+            try {
+                Student student;
+                while ((student = reader.next()) != null) {
+                    session.insert(student);
+                    accepted++;
+                }
+                tx.commit();
+            } catch (RuntimeException | IOException e) {
+                tx.rollback();
+                throw e;
+            }
+
+            IngestReport report = IngestReport.of(accepted, reader.getRejected(), reader.getRejectedSamples(),
+                    System.nanoTime() - start);
+            log.info("Ingested {} students ({} rejected) in {} ms, {} rows/sec",
+                    report.accepted(), report.rejected(), report.elapsedMillis(), report.rowsPerSecond());
+            return report;
+        }
+    }
+}
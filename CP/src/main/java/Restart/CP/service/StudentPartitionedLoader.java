@@ -0,0 +1,176 @@
+package Restart.CP.service;
+
+import Restart.CP.dto.IngestFormat;
+import Restart.CP.dto.LoadReport;
+import Restart.CP.model.Student;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityTransaction;
+import jakarta.persistence.PersistenceUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Splits a bulk load into partitions and writes them concurrently. Every partition gets its own
+// EntityManager and transaction on a worker thread, so a failed partition is rolled back and retried
+// alone while the others commit. Parallelism is capped by the pool size minus a few connections kept
+// back for normal traffic, and at most parallelism * 2 partitions are held in memory at once.
+@Service
+public class StudentPartitionedLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentPartitionedLoader.class);
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Value("${cp.loader.partition-size:50000}")
+    private int partitionSize;
+
+    @Value("${cp.loader.parallelism:8}")
+    private int configuredParallelism;
+
+    @Value("${cp.loader.reserved-connections:2}")
+    private int reservedConnections;
+
+    @Value("${cp.loader.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${cp.loader.max-attempts:3}")
+    private int maxAttempts;
+
+    public LoadReport load(InputStream body, IngestFormat format) throws IOException, InterruptedException {
+        int parallelism = parallelism();
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+
+        AtomicLong written = new AtomicLong();
+        AtomicLong retries = new AtomicLong();
+        List<String> failed = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger partitions = new AtomicInteger();
+        long start = System.nanoTime();
+
+        long rejected;
+        try (StudentRowReader reader = new StudentRowReader(body, format, mapper)) {
+            List<Student> partition = new ArrayList<>(partitionSize);
+            Student student;
+            while ((student = reader.next()) != null) {
+                partition.add(student);
+                if (partition.size() == partitionSize) {
+                    submit(workers, inFlight, partitions.getAndIncrement(), partition, written, retries, failed, start);
+                    partition = new ArrayList<>(partitionSize);
+                }
+            }
+            if (!partition.isEmpty()) {
+                submit(workers, inFlight, partitions.getAndIncrement(), partition, written, retries, failed, start);
+            }
+            rejected = reader.getRejected();
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        double seconds = elapsed / 1_000_000_000.0;
+        LoadReport report = new LoadReport(written.get(), rejected, partitions.get(), parallelism, retries.get(),
+                List.copyOf(failed), elapsed / 1_000_000,
+                seconds > 0 ? Math.round(written.get() / seconds * 10) / 10.0 : written.get());
+        log.info("Parallel load finished: {} rows in {} partitions ({} failed, {} retries) at {} rows/sec",
+                report.rowsWritten(), report.partitions(), report.failedPartitions().size(), report.retries(),
+                report.rowsPerSecond());
+        return report;
+    }
+
+    private void submit(ExecutorService workers, Semaphore inFlight, int index, List<Student> rows,
+                        AtomicLong written, AtomicLong retries, List<String> failed, long start)
+            throws InterruptedException {
+        // Backpressure: stop reading the body while enough partitions are queued
+        inFlight.acquire();
+        workers.execute(() -> {
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    try {
+                        writePartition(rows);
+                        long total = written.addAndGet(rows.size());
+                        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+                        log.info("Partition {} committed ({} rows); {} rows so far, {} rows/sec",
+                                index, rows.size(), total, Math.round(total / seconds));
+                        return;
+                    } catch (RuntimeException e) {
+                        if (attempt >= maxAttempts) {
+                            log.error("Partition {} failed after {} attempts", index, attempt, e);
+                            failed.add("partition " + index + ": " + e.getMessage());
+                            return;
+                        }
+                        retries.incrementAndGet();
+                        log.warn("Partition {} failed on attempt {}, retrying: {}", index, attempt, e.getMessage());
+                        Thread.sleep(200L << (attempt - 1));
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.add("partition " + index + ": interrupted");
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    private void writePartition(List<Student> rows) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        EntityTransaction tx = entityManager.getTransaction();
+        try {
+            tx.begin();
+            for (int i = 0; i < rows.size(); i++) {
+                // Fresh instances per attempt: a rolled back attempt leaves generated ids on the old ones
+                Student row = rows.get(i);
+                entityManager.persist(new Student(row.getName(), row.getDep()));
+                if ((i + 1) % batchSize == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            tx.commit();
+        } catch (RuntimeException e) {
+            if (tx.isActive()) {
+                tx.rollback();
+            }
+            throw e;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private int parallelism() {
+        int poolSize;
+        try {
+            poolSize = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            poolSize = configuredParallelism + reservedConnections;
+        }
+        return Math.max(1, Math.min(configuredParallelism, poolSize - reservedConnections));
+    }
+}
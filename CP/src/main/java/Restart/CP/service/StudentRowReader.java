@@ -0,0 +1,148 @@
+package Restart.CP.service;
+
+import Restart.CP.dto.IngestFormat;
+import Restart.CP.model.Student;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads students one line at a time from an NDJSON or CSV body, so only the current line is kept in memory.
+// Bad lines are counted and skipped instead of failing the whole load.
+public class StudentRowReader implements Closeable {
+
+    private static final int MAX_COLUMN_LENGTH = 255;
+    private static final int MAX_SAMPLES = 20;
+
+    private final BufferedReader reader;
+    private final IngestFormat format;
+    private final ObjectMapper mapper;
+
+    private long lineNumber;
+    private long rejected;
+    private final List<String> rejectedSamples = new ArrayList<>();
+
+    public StudentRowReader(InputStream in, IngestFormat format, ObjectMapper mapper) {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+        this.format = format;
+        this.mapper = mapper;
+    }
+
+    // Returns the next valid student, or null at the end of the body
+    public Student next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == IngestFormat.CSV && lineNumber == 1 && isCsvHeader(line)) {
+                continue;
+            }
+            try {
+                Student student = format == IngestFormat.CSV ? fromCsv(line) : fromJson(line);
+                validate(student);
+                return student;
+            } catch (IllegalArgumentException | IOException e) {
+                reject(e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<String> getRejectedSamples() {
+        return rejectedSamples;
+    }
+
+    private Student fromJson(String line) throws IOException {
+        JsonNode node = mapper.readTree(line);
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        return new Student(text(node, "name"), text(node, "dep"));
+    }
+
+    private Student fromCsv(String line) {
+        List<String> columns = splitCsv(line);
+        if (columns.size() != 2) {
+            throw new IllegalArgumentException("expected 2 columns but found " + columns.size());
+        }
+        return new Student(columns.get(0).trim(), columns.get(1).trim());
+    }
+
+    private void validate(Student student) {
+        if (student.getName() == null || student.getName().isBlank()) {
+            throw new IllegalArgumentException("name is required");
+        }
+        if (student.getDep() == null || student.getDep().isBlank()) {
+            throw new IllegalArgumentException("dep is required");
+        }
+        if (student.getName().length() > MAX_COLUMN_LENGTH || student.getDep().length() > MAX_COLUMN_LENGTH) {
+            throw new IllegalArgumentException("value longer than " + MAX_COLUMN_LENGTH + " characters");
+        }
+    }
+
+    private void reject(String reason) {
+        rejected++;
+        if (rejectedSamples.size() < MAX_SAMPLES) {
+            rejectedSamples.add("line " + lineNumber + ": " + reason);
+        }
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static boolean isCsvHeader(String line) {
+        return line.replace("\"", "").trim().equalsIgnoreCase("name,dep");
+    }
+
+    // Minimal RFC 4180 split: handles quoted values and "" escapes
+    private static List<String> splitCsv(String line) {
+        List<String> columns = new ArrayList<>(2);
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                columns.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted value");
+        }
+        columns.add(current.toString());
+        return columns;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
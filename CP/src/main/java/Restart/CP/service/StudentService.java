@@ -1,14 +1,17 @@
 package Restart.CP.service;
 
+import Restart.CP.dto.StudentPage;
 import Restart.CP.model.Student;
 import Restart.CP.repo.StudentRepo;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class StudentService {
@@ -38,7 +41,7 @@ public class StudentService {
         for (int i = 0; i < students.size(); i++) {
             entityManager.persist(students.get(i));
 
-            if (i % 5 == 0) { // Flush & clear every 5 records
+            if ((i + 1) % 5 == 0) { // Flush & clear every 5 records
                 entityManager.flush();  // Execute INSERTs immediately
                 entityManager.clear();  // Detach entities to free memory
             }
@@ -46,8 +49,30 @@ public class StudentService {
         System.out.println("✅ Batch Insert Completed!");
     }
 
-    // Fetch all students from DB
+    // Single row insert used by /add
+    public Student addStudent(Student student) {
+        return repo.save(student);
+    }
+
+    // Fetch all students from DB (read-only: served by the replica when routing is enabled)
+    @Transactional(readOnly = true)
     public List<Student> getAllStudents() {
         return repo.findAll();
     }
+
+    // Keyset page ordered by id; reads one extra row to know whether there is a next page
+    @Transactional(readOnly = true)
+    public StudentPage getStudentPage(String after, int limit) {
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<Student> rows = after == null || after.isBlank()
+                ? repo.findFirstPage(window)
+                : repo.findPageAfter(ContinuationToken.decode(after), window);
+
+        if (rows.size() <= limit) {
+            return new StudentPage(rows, null);
+        }
+        List<Student> page = rows.subList(0, limit);
+        UUID lastId = page.get(limit - 1).getId();
+        return new StudentPage(List.copyOf(page), ContinuationToken.encode(lastId));
+    }
 }
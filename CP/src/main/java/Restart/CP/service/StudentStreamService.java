@@ -0,0 +1,86 @@
+package Restart.CP.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+
+// Writes the whole student table as a JSON array straight from a forward-only JDBC cursor.
+// Rows are never collected and never enter a persistence context, so heap use does not grow with the table.
+@Service
+public class StudentStreamService {
+
+    private static final String SQL = "SELECT id, name, dep FROM student ORDER BY id";
+    private static final int FLUSH_EVERY = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    // Rows per round trip for drivers that honour the fetch size on a forward-only statement
+    @Value("${cp.stream.fetch-size:500}")
+    private int fetchSize;
+
+    public void writeAll(OutputStream out) throws IOException {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        try (JsonGenerator json = mapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartArray();
+            long[] written = {0};
+            readOnly.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(streamingFetchSize(connection));
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    json.writeStartObject();
+                    json.writeStringField("id", toUuid(rs.getBytes(1)).toString());
+                    json.writeStringField("name", rs.getString(2));
+                    json.writeStringField("dep", rs.getString(3));
+                    json.writeEndObject();
+                    // Push a chunk to the client every so often instead of buffering the response
+                    if (++written[0] % FLUSH_EVERY == 0) {
+                        json.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+            json.writeEndArray();
+        }
+    }
+
+    // Connector/J reads the whole result into memory for any other fetch size unless the URL turns on
+    // useCursorFetch, which would put every query of the application on server-side cursors. Integer.MIN_VALUE
+    // streams this one statement row by row instead; the connection is not used for anything else meanwhile.
+    private int streamingFetchSize(Connection connection) throws SQLException {
+        return connection.getMetaData().getDatabaseProductName().equals("MySQL") ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+}
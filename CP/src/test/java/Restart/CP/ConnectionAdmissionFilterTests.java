@@ -0,0 +1,137 @@
+package Restart.CP;
+
+import Restart.CP.concurrency.AdmissionProperties;
+import Restart.CP.concurrency.ConnectionAdmissionFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Drives the filter directly with mock requests. The pool is never started: the filter only reads its
+// maximumPoolSize, which is all the permit count depends on.
+class ConnectionAdmissionFilterTests {
+
+    private static final FilterChain PASS = (request, response) -> { };
+    private static final FilterChain GO_ASYNC = (request, response) -> request.startAsync();
+
+    private HikariDataSource dataSource;
+    private SimpleMeterRegistry registry;
+    private ConnectionAdmissionFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1");
+        dataSource.setMaximumPoolSize(1);
+        registry = new SimpleMeterRegistry();
+
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setEnabled(true);
+        properties.setMaxWait(Duration.ofMillis(50));
+        filter = new ConnectionAdmissionFilter(List.of(dataSource), properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void rejectsWithRetryAfterOnceThePermitsAreTaken() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<MockHttpServletResponse> holder = executor.submit(() -> call(request(), (request, response) -> {
+            entered.countDown();
+            try {
+                finish.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        MockHttpServletResponse rejected = call(request(), PASS);
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(registry.get("cp.admission.rejected").counter().count()).isEqualTo(1);
+
+        finish.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS).getStatus()).isEqualTo(200);
+        executor.shutdown();
+        assertThat(call(request(), PASS).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void permitsFollowThePoolSize() throws Exception {
+        assertThat(limit()).isEqualTo(1);
+        MockHttpServletRequest first = request();
+        call(first, GO_ASYNC);
+
+        dataSource.setMaximumPoolSize(2);
+        MockHttpServletRequest second = request();
+        assertThat(call(second, GO_ASYNC).getStatus()).isEqualTo(200);
+        assertThat(limit()).isEqualTo(2);
+
+        // Both permits are out; shrinking back leaves none for newcomers until both complete
+        dataSource.setMaximumPoolSize(1);
+        assertThat(call(request(), PASS).getStatus()).isEqualTo(503);
+        assertThat(limit()).isEqualTo(1);
+        first.getAsyncContext().complete();
+        assertThat(call(request(), PASS).getStatus()).isEqualTo(503);
+        second.getAsyncContext().complete();
+        assertThat(call(request(), PASS).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void asyncRequestsKeepTheirPermitUntilTheyComplete() throws Exception {
+        MockHttpServletRequest streaming = request();
+        assertThat(call(streaming, GO_ASYNC).getStatus()).isEqualTo(200);
+        assertThat(streaming.isAsyncStarted()).isTrue();
+        assertThat(call(request(), PASS).getStatus()).isEqualTo(503);
+
+        // The async dispatch that writes the result does not need a permit of its own
+        MockHttpServletRequest dispatch = request();
+        dispatch.setDispatcherType(DispatcherType.ASYNC);
+        assertThat(call(dispatch, PASS).getStatus()).isEqualTo(200);
+
+        streaming.getAsyncContext().complete();
+        MockHttpServletRequest next = request();
+        assertThat(call(next, GO_ASYNC).getStatus()).isEqualTo(200);
+
+        // Released exactly once: with the next request holding the only permit, others are turned away again
+        assertThat(call(request(), PASS).getStatus()).isEqualTo(503);
+        next.getAsyncContext().complete();
+    }
+
+    private double limit() {
+        return registry.get("cp.admission.limit").gauge().value();
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/Show/stream");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private MockHttpServletResponse call(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
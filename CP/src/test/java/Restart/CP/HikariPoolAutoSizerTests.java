@@ -0,0 +1,95 @@
+package Restart.CP;
+
+import Restart.CP.pool.HikariPoolAutoSizer;
+import Restart.CP.pool.PoolAutoSizeProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Drives an H2-backed pool with a synthetic load generator and checks the controller grows under
+// contention and gives connections back once the load is gone.
+class HikariPoolAutoSizerTests {
+
+    private HikariDataSource dataSource;
+    private SimpleMeterRegistry registry;
+    private HikariPoolAutoSizer sizer;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:autosize;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName("autosize-test");
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setMinimumIdle(1);
+        dataSource.setMetricRegistry(registry);
+
+        PoolAutoSizeProperties properties = new PoolAutoSizeProperties();
+        properties.setEnabled(true);
+        properties.setMinPoolSize(2);
+        properties.setMaxPoolSize(12);
+        properties.setGrowStep(2);
+        properties.setShrinkStep(2);
+        properties.setGrowAfterSamples(2);
+        properties.setShrinkAfterSamples(3);
+        properties.setCooldown(Duration.ZERO);
+
+        sizer = new HikariPoolAutoSizer(List.of(dataSource), properties, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    void growsUnderLoadAndShrinksWhenIdle() throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService load = Executors.newFixedThreadPool(10);
+        for (int i = 0; i < 10; i++) {
+            load.submit(() -> {
+                while (running.get()) {
+                    try (Connection connection = dataSource.getConnection()) {
+                        connection.createStatement().execute("SELECT 1");
+                        Thread.sleep(20);
+                    } catch (Exception e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        for (int i = 0; i < 10 && dataSource.getHikariConfigMXBean().getMaximumPoolSize() < 10; i++) {
+            Thread.sleep(100);
+            sizer.sample();
+        }
+        int grown = dataSource.getHikariConfigMXBean().getMaximumPoolSize();
+        assertThat(grown).isGreaterThan(2).isLessThanOrEqualTo(12);
+
+        running.set(false);
+        load.shutdown();
+        assertThat(load.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        for (int i = 0; i < 20; i++) {
+            sizer.sample();
+        }
+        assertThat(dataSource.getHikariConfigMXBean().getMaximumPoolSize()).isEqualTo(2);
+
+        assertThat(registry.get("cp.pool.autosize.decisions").tag("action", "grow").counter().count()).isPositive();
+        assertThat(registry.get("cp.pool.autosize.decisions").tag("action", "shrink").counter().count()).isPositive();
+    }
+}
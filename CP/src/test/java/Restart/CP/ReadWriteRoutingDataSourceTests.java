@@ -0,0 +1,137 @@
+package Restart.CP;
+
+import Restart.CP.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The primary and replica pools point at separate in-memory H2 databases whose whoami table holds the pool's
+// name, so whoAmI() shows which side the routing data source picked.
+class ReadWriteRoutingDataSourceTests {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private SimpleMeterRegistry registry;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = pool("primary");
+        replica = pool("replica");
+        registry = new SimpleMeterRegistry();
+
+        routing = new ReadWriteRoutingDataSource(primary, replica, Duration.ofSeconds(5), registry);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        assertThat(readOnly.execute(status -> whoAmI())).isEqualTo("replica");
+        assertThat(readWrite.execute(status -> whoAmI())).isEqualTo("primary");
+        assertThat(registry.get("cp.datasource.route").tag("route", "replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() {
+        replica.close();
+        assertThat(readOnly.execute(status -> whoAmI())).isEqualTo("primary");
+        assertThat(registry.get("cp.datasource.route").tag("route", "fallback_down").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void connectionsWithCredentialsAreRoutedTheSameWay() throws SQLException {
+        assertThat(whoAmI(routing.getConnection("sa", ""))).isEqualTo("primary");
+        assertThat(inReadOnlyTransaction(() -> whoAmI(routing.getConnection("sa", "")))).isEqualTo("replica");
+        assertThat(registry.get("cp.datasource.route").tag("route", "replica").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void connectionsWithCredentialsFallBackToPrimaryWhenReplicaIsDown() throws SQLException {
+        replica.close();
+        assertThat(inReadOnlyTransaction(() -> whoAmI(routing.getConnection("sa", "")))).isEqualTo("primary");
+        assertThat(registry.get("cp.datasource.route").tag("route", "fallback_down").counter().count()).isEqualTo(1);
+    }
+
+    private static String whoAmI(Connection connection) throws SQLException {
+        try (connection;
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT name FROM whoami")) {
+            rows.next();
+            return rows.getString(1);
+        }
+    }
+
+    // What a read-only transaction looks like to the routing data source, without a transaction manager
+    // that would fetch a connection of its own
+    private static String inReadOnlyTransaction(SqlCall call) throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            return call.run();
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlCall {
+
+        String run() throws SQLException;
+    }
+
+    private String whoAmI() {
+        return jdbc.queryForObject("SELECT name FROM whoami", String.class);
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource dataSource = new CredentialCheckingPool();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPoolName(name);
+        dataSource.setMaximumPoolSize(2);
+        dataSource.setConnectionTimeout(250);
+        new JdbcTemplate(dataSource).execute("CREATE TABLE IF NOT EXISTS whoami AS SELECT '" + name + "' AS name");
+        return dataSource;
+    }
+
+    // Plain Hikari refuses getConnection(username, password); this one checks them against the pool's own
+    // credentials, like pools that do take per-call credentials
+    private static class CredentialCheckingPool extends HikariDataSource {
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            if (!username.equals(getUsername()) || !password.equals(getPassword() == null ? "" : getPassword())) {
+                throw new SQLException("Wrong credentials for " + getPoolName());
+            }
+            return getConnection();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package Restart.CP;
+
+import Restart.CP.dto.IngestFormat;
+import Restart.CP.dto.IngestReport;
+import Restart.CP.service.StudentIngestService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:ingest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "cp.ingest.batch-size=2"
+})
+class StudentIngestServiceTests {
+
+    @Autowired
+    private StudentIngestService service;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void reportsEveryRejectedRowAndWritesTheRest() throws IOException {
+        IngestReport report = service.ingest(body("""
+                {"name": "Ada", "dep": "REPORT"}
+                {"name": "Broken"
+                {"name": "", "dep": "REPORT"}
+                {"name": "Alan", "dep": "REPORT"}
+                [1, 2]
+                {"name": "Grace", "dep": "REPORT"}
+                """), IngestFormat.NDJSON, null);
+
+        assertThat(report.accepted()).isEqualTo(3);
+        assertThat(report.rejected()).isEqualTo(3);
+        assertThat(report.rejectedSamples()).hasSize(3);
+        assertThat(report.rejectedSamples().get(0)).startsWith("line 2: ");
+        assertThat(report.rejectedSamples().subList(1, 3))
+                .containsExactly("line 3: name is required", "line 5: not a JSON object");
+        assertThat(rows("REPORT")).isEqualTo(3);
+    }
+
+    @Test
+    void aBodyThatBreaksOffLeavesNothingBehind() {
+        InputStream broken = new SequenceInputStream(
+                body("Ada,BROKEN\nAlan,BROKEN\nGrace,BROKEN\n"),
+                new InputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        throw new IOException("connection reset");
+                    }
+                });
+
+        assertThatThrownBy(() -> service.ingest(broken, IngestFormat.CSV, null))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+        // One batch of two had already gone out; the rollback takes it back
+        assertThat(rows("BROKEN")).isZero();
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long rows(String dep) {
+        return jdbc.queryForObject("SELECT count(*) FROM student WHERE dep = ?", Long.class, dep);
+    }
+}
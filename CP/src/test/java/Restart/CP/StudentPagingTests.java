@@ -0,0 +1,135 @@
+package Restart.CP;
+
+import Restart.CP.model.Student;
+import Restart.CP.repo.StudentRepo;
+import Restart.CP.service.ContinuationToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// /Show keyset pages and the /Show/stream export over the same seven students. Ids are UUIDv7 in BINARY(16),
+// so the database orders them by their bytes: the same order as their lower-case string form.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:paging;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+class StudentPagingTests {
+
+    private static final int STUDENTS = 7;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private StudentRepo repo;
+
+    private List<String> ids;
+
+    @BeforeEach
+    void seed() {
+        repo.deleteAllInBatch();
+        repo.saveAll(IntStream.range(0, STUDENTS).mapToObj(i -> new Student("S" + i, "PAGING")).toList());
+        ids = repo.findAll().stream().map(student -> student.getId().toString()).sorted().toList();
+    }
+
+    @Test
+    void pagesAreCappedAtTheLimitAndOrderedById() throws Exception {
+        JsonNode page = show("/Show?limit=3");
+
+        assertThat(idsOf(page)).containsExactlyElementsOf(ids.subList(0, 3));
+        assertThat(page.get("next").asText()).isEqualTo(ContinuationToken.encode(UUID.fromString(ids.get(2))));
+    }
+
+    @Test
+    void followingTheTokenVisitsEveryRowOnce() throws Exception {
+        List<String> seen = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        String next = null;
+        do {
+            JsonNode page = show(next == null ? "/Show?limit=3" : "/Show?limit=3&after=" + next);
+            seen.addAll(idsOf(page));
+            sizes.add(page.get("items").size());
+            next = page.get("next").isNull() ? null : page.get("next").asText();
+        } while (next != null);
+
+        assertThat(seen).containsExactlyElementsOf(ids);
+        assertThat(sizes).containsExactly(3, 3, 1);
+    }
+
+    @Test
+    void aPageThatReachesTheEndHasNoToken() throws Exception {
+        // Exactly the remaining rows: the extra row read to detect a next page is not there
+        JsonNode all = show("/Show?limit=" + STUDENTS);
+        assertThat(idsOf(all)).containsExactlyElementsOf(ids);
+        assertThat(all.get("next").isNull()).isTrue();
+
+        JsonNode afterLast = show("/Show?after=" + ContinuationToken.encode(UUID.fromString(ids.get(STUDENTS - 1))));
+        assertThat(afterLast.get("items").size()).isZero();
+        assertThat(afterLast.get("next").isNull()).isTrue();
+    }
+
+    @Test
+    void malformedTokensAreBadRequests() throws Exception {
+        mvc.perform(get("/Show").param("after", "not a token!")).andExpect(status().isBadRequest());
+        // Valid base64, but not 16 bytes
+        mvc.perform(get("/Show").param("after", "AAAA")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void streamedExportReturnsEveryRow() throws Exception {
+        MvcResult started = mvc.perform(get("/Show/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult done = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(STUDENTS))
+                .andReturn();
+
+        JsonNode rows = mapper.readTree(done.getResponse().getContentAsString());
+        List<String> streamed = new ArrayList<>();
+        rows.forEach(row -> {
+            assertThat(row.get("dep").asText()).isEqualTo("PAGING");
+            streamed.add(row.get("id").asText());
+        });
+        assertThat(streamed).containsExactlyElementsOf(ids);
+    }
+
+    private JsonNode show(String uri) throws Exception {
+        String body = mvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(body);
+    }
+
+    private static List<String> idsOf(JsonNode page) {
+        List<String> ids = new ArrayList<>();
+        page.get("items").forEach(item -> ids.add(item.get("id").asText()));
+        return ids;
+    }
+}
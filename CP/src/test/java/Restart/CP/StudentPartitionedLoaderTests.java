@@ -0,0 +1,83 @@
+package Restart.CP;
+
+import Restart.CP.dto.IngestFormat;
+import Restart.CP.dto.LoadReport;
+import Restart.CP.service.StudentPartitionedLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:partitioned;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.hikari.maximum-pool-size=6",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "cp.loader.partition-size=3",
+        "cp.loader.parallelism=2",
+        "cp.loader.max-attempts=2"
+})
+class StudentPartitionedLoaderTests {
+
+    @Autowired
+    private StudentPartitionedLoader loader;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void splitsTheBodyIntoPartitions() throws Exception {
+        LoadReport report = loader.load(csv("SPLIT", 10, null), IngestFormat.CSV);
+
+        // 3 + 3 + 3 + 1
+        assertThat(report.partitions()).isEqualTo(4);
+        assertThat(report.parallelism()).isEqualTo(2);
+        assertThat(report.rowsWritten()).isEqualTo(10);
+        assertThat(report.failedPartitions()).isEmpty();
+        assertThat(report.retries()).isZero();
+        assertThat(rows("SPLIT")).isEqualTo(10);
+    }
+
+    @Test
+    void aFailingPartitionIsRetriedAndRolledBackAlone() throws Exception {
+        // Every insert of this name fails, so the partition holding row 5 fails on both attempts
+        jdbc.execute("ALTER TABLE student ADD CONSTRAINT no_poison CHECK (name <> 'poison')");
+        LoadReport report;
+        try {
+            report = loader.load(csv("POISON", 9, 5), IngestFormat.CSV);
+        } finally {
+            jdbc.execute("ALTER TABLE student DROP CONSTRAINT no_poison");
+        }
+
+        assertThat(report.partitions()).isEqualTo(3);
+        assertThat(report.retries()).isEqualTo(1);
+        assertThat(report.failedPartitions()).singleElement().asString().startsWith("partition 1: ");
+        assertThat(report.rowsWritten()).isEqualTo(6);
+        // Rows 4 and 6 went down with the poisoned row; partitions 0 and 2 committed
+        assertThat(rows("POISON")).isEqualTo(6);
+        assertThat(jdbc.queryForList("SELECT name FROM student WHERE dep = 'POISON'", String.class))
+                .doesNotContain("Student 4", "Student 6");
+    }
+
+    // count students in dep, numbered from 1; the one at poisonedRow is named "poison"
+    private static InputStream csv(String dep, int count, Integer poisonedRow) {
+        StringBuilder body = new StringBuilder("name,dep\n");
+        for (int i = 1; i <= count; i++) {
+            body.append(poisonedRow != null && i == poisonedRow ? "poison" : "Student " + i).append(',').append(dep).append('\n');
+        }
+        return new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private long rows(String dep) {
+        return jdbc.queryForObject("SELECT count(*) FROM student WHERE dep = ?", Long.class, dep);
+    }
+}
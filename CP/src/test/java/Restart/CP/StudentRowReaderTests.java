@@ -0,0 +1,119 @@
+package Restart.CP;
+
+import Restart.CP.dto.IngestFormat;
+import Restart.CP.model.Student;
+import Restart.CP.service.StudentRowReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class StudentRowReaderTests {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void readsQuotedCsvAndSkipsTheHeader() throws IOException {
+        StudentRowReader reader = reader(IngestFormat.CSV, """
+                name,dep
+                Ada,CS
+                "Lovelace, Ada","Dept of ""Maths\"""
+
+                Alan , EE
+                """);
+
+        assertThat(readAll(reader)).extracting(Student::getName, Student::getDep).containsExactly(
+                tuple("Ada", "CS"),
+                tuple("Lovelace, Ada", "Dept of \"Maths\""),
+                tuple("Alan", "EE"));
+        assertThat(reader.getRejected()).isZero();
+    }
+
+    @Test
+    void rejectsMalformedCsvRowsAndKeepsGoing() throws IOException {
+        StudentRowReader reader = reader(IngestFormat.CSV, """
+                Ada,CS
+                "Unterminated,CS
+                OnlyOneColumn
+                Too,Many,Columns
+                ,CS
+                Alan,EE
+                """);
+
+        assertThat(readAll(reader)).extracting(Student::getName).containsExactly("Ada", "Alan");
+        assertThat(reader.getRejected()).isEqualTo(4);
+        assertThat(reader.getRejectedSamples()).containsExactly(
+                "line 2: unterminated quoted value",
+                "line 3: expected 2 columns but found 1",
+                "line 4: expected 2 columns but found 3",
+                "line 5: name is required");
+    }
+
+    @Test
+    void enforcesTheColumnLengthLimit() throws IOException {
+        String longest = "x".repeat(255);
+        StudentRowReader reader = reader(IngestFormat.CSV,
+                longest + ",CS\n" + longest + "x,CS\nAda," + longest + "x\n");
+
+        assertThat(readAll(reader)).extracting(Student::getName).containsExactly(longest);
+        assertThat(reader.getRejectedSamples()).containsExactly(
+                "line 2: value longer than 255 characters",
+                "line 3: value longer than 255 characters");
+    }
+
+    @Test
+    void rejectsMalformedJsonLines() throws IOException {
+        StudentRowReader reader = reader(IngestFormat.NDJSON, """
+                {"name": "Ada", "dep": "CS"}
+                {"name": "Broken"
+                [1, 2]
+                {"name": "NoDep"}
+                {"name": "Alan", "dep": null}
+                {"name": "Grace", "dep": "CS", "extra": true}
+                """);
+
+        assertThat(readAll(reader)).extracting(Student::getName).containsExactly("Ada", "Grace");
+        assertThat(reader.getRejected()).isEqualTo(4);
+        assertThat(reader.getRejectedSamples()).hasSize(4);
+        assertThat(reader.getRejectedSamples().get(0)).startsWith("line 2: ");
+        assertThat(reader.getRejectedSamples().subList(1, 4)).containsExactly(
+                "line 3: not a JSON object",
+                "line 4: dep is required",
+                "line 5: dep is required");
+    }
+
+    @Test
+    void countsEveryRejectionButKeepsOnlyTheFirstSamples() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            body.append("bad\n");
+        }
+        StudentRowReader reader = reader(IngestFormat.CSV, body.toString());
+
+        assertThat(readAll(reader)).isEmpty();
+        assertThat(reader.getRejected()).isEqualTo(50);
+        assertThat(reader.getRejectedSamples()).hasSize(20);
+    }
+
+    private StudentRowReader reader(IngestFormat format, String body) {
+        return new StudentRowReader(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), format, mapper);
+    }
+
+    private static List<Student> readAll(StudentRowReader reader) throws IOException {
+        List<Student> students = new ArrayList<>();
+        try (reader) {
+            Student student;
+            while ((student = reader.next()) != null) {
+                students.add(student);
+            }
+        }
+        return students;
+    }
+}
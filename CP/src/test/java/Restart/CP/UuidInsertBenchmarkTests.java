@@ -0,0 +1,98 @@
+package Restart.CP;
+
+import Restart.CP.generator.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Random UUIDv4 (the old @UuidGenerator) vs time-ordered UUIDv7 as a BINARY(16) InnoDB primary key.
+// Needs a MySQL instance, so it only runs when asked for:
+//   mvn test -Dtest=UuidInsertBenchmarkTests -Dbench.uuid=true -Dbench.rows=1000000,10000000 \
+//       -Dbench.url=jdbc:mysql://localhost:3306/Hibernate -Dbench.user=root -Dbench.password=...
+@EnabledIfSystemProperty(named = "bench.uuid", matches = "true")
+class UuidInsertBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(UuidInsertBenchmarkTests.class);
+
+    private static final int BATCH = 1000;
+
+    @Test
+    void compareInsertThroughputAndIndexSize() throws SQLException {
+        String url = System.getProperty("bench.url", "jdbc:mysql://localhost:3306/Hibernate");
+        String jdbcUrl = url + (url.contains("?") ? "&" : "?") + "rewriteBatchedStatements=true";
+
+        try (Connection connection = DriverManager.getConnection(jdbcUrl,
+                System.getProperty("bench.user", "root"), System.getProperty("bench.password", ""))) {
+            connection.setAutoCommit(false);
+            for (String rows : System.getProperty("bench.rows", "1000000,10000000").split(",")) {
+                long n = Long.parseLong(rows.trim());
+                run(connection, "bench_uuid_v4", n, UUID::randomUUID);
+                run(connection, "bench_uuid_v7", n, UuidV7Generator::next);
+            }
+        }
+    }
+
+    private void run(Connection connection, String table, long rows, Supplier<UUID> ids) throws SQLException {
+        try (Statement ddl = connection.createStatement()) {
+            ddl.execute("DROP TABLE IF EXISTS " + table);
+            // Same shape as the student table plus a secondary index, which carries a copy of the primary key
+            ddl.execute("CREATE TABLE " + table + " (id BINARY(16) NOT NULL PRIMARY KEY, name VARCHAR(255), dep VARCHAR(255),"
+                    + " INDEX idx_" + table + "_dep (dep)) ENGINE=InnoDB");
+        }
+        connection.commit();
+
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (id, name, dep) VALUES (?, ?, ?)")) {
+            for (long i = 1; i <= rows; i++) {
+                insert.setBytes(1, toBytes(ids.get()));
+                insert.setString(2, "Student " + i);
+                insert.setString(3, "DEP" + (i % 16));
+                insert.addBatch();
+                if (i % BATCH == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long dataBytes;
+        long indexBytes;
+        try (Statement stats = connection.createStatement()) {
+            try (ResultSet rs = stats.executeQuery("SELECT count(*) FROM " + table)) {
+                rs.next();
+                assertThat(rs.getLong(1)).as("rows in %s", table).isEqualTo(rows);
+            }
+            stats.execute("ANALYZE TABLE " + table);
+            try (ResultSet rs = stats.executeQuery("SELECT data_length, index_length FROM information_schema.TABLES"
+                    + " WHERE table_schema = DATABASE() AND table_name = '" + table + "'")) {
+                rs.next();
+                dataBytes = rs.getLong(1);
+                indexBytes = rs.getLong(2);
+            }
+        }
+        connection.commit();
+
+        log.info("{}: {} rows at {} rows/sec, clustered (PK) {} MB, secondary {} MB",
+                table, rows, Math.round(rows / seconds), dataBytes >> 20, indexBytes >> 20);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits()).array();
+    }
+}
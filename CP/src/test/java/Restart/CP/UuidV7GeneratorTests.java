@@ -0,0 +1,115 @@
+package Restart.CP;
+
+import Restart.CP.generator.UuidV7Generator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7GeneratorTests {
+
+    private static final long MILLIS = 1_700_000_000_000L;
+
+    @Test
+    void versionVariantAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID id = UuidV7Generator.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(millis(id)).isBetween(before, after);
+
+        UUID fixed = new UuidV7Generator.Sequence().next(MILLIS);
+        assertThat(millis(fixed)).isEqualTo(MILLIS);
+        assertThat(fixed.toString()).startsWith(String.format("%08x-%04x-7", MILLIS >>> 16, MILLIS & 0xFFFF));
+    }
+
+    // Eight threads share one millisecond: every id gets its own counter value, one after another
+    @Test
+    void idsFromManyThreadsInOneMillisecondAreStrictlyOrdered() throws Exception {
+        UuidV7Generator.Sequence sequence = new UuidV7Generator.Sequence();
+        int threads = 8;
+        int perThread = 250;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                long[] states = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    states[i] = state(sequence.next(MILLIS));
+                }
+                return states;
+            }));
+        }
+        long[] all = new long[threads * perThread];
+        int n = 0;
+        for (Future<long[]> future : futures) {
+            long[] states = future.get();
+            for (int i = 1; i < states.length; i++) {
+                assertThat(states[i]).isGreaterThan(states[i - 1]);
+            }
+            System.arraycopy(states, 0, all, n, states.length);
+            n += states.length;
+        }
+        pool.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertThat(all[i]).isEqualTo(all[i - 1] + 1);
+        }
+        assertThat(all[0] >>> 12).isEqualTo(MILLIS);
+    }
+
+    // 5000 ids in one millisecond overflow the 12-bit counter, which starts below 2048: the rest borrow the
+    // next millisecond from counter 0 and stay in order, until the clock moves past the borrowed one
+    @Test
+    void counterOverflowBorrowsTheNextMillisecond() {
+        UuidV7Generator.Sequence sequence = new UuidV7Generator.Sequence();
+        UUID[] ids = new UUID[5000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = sequence.next(MILLIS);
+        }
+
+        int firstBorrowed = -1;
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(state(ids[i])).isEqualTo(state(ids[i - 1]) + 1);
+            if (firstBorrowed < 0 && millis(ids[i]) != MILLIS) {
+                firstBorrowed = i;
+            }
+        }
+        assertThat(firstBorrowed).isPositive();
+        assertThat(millis(ids[firstBorrowed])).isEqualTo(MILLIS + 1);
+        assertThat(counter(ids[firstBorrowed])).isZero();
+        assertThat(counter(ids[firstBorrowed - 1])).isEqualTo(0xFFF);
+        assertThat(millis(ids[ids.length - 1])).isEqualTo(MILLIS + 1);
+
+        // Still inside the borrowed millisecond: keep counting
+        UUID caughtUp = sequence.next(MILLIS + 1);
+        assertThat(state(caughtUp)).isEqualTo(state(ids[ids.length - 1]) + 1);
+        // Past it: a fresh counter in the lower half
+        UUID later = sequence.next(MILLIS + 2);
+        assertThat(millis(later)).isEqualTo(MILLIS + 2);
+        assertThat(counter(later)).isLessThan(2048);
+    }
+
+    private static long millis(UUID id) {
+        return id.getMostSignificantBits() >>> 16;
+    }
+
+    private static long counter(UUID id) {
+        return id.getMostSignificantBits() & 0xFFF;
+    }
+
+    // (millis << 12) | counter: consecutive ids differ by exactly one
+    private static long state(UUID id) {
+        return (millis(id) << 12) | counter(id);
+    }
+}
@@ -0,0 +1,130 @@
+package Restart.CP;
+
+import Restart.CP.model.Student;
+import Restart.CP.repo.StudentRepo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Platform threads vs virtual threads + admission gate, 2,000 concurrent clients against /Show on H2.
+//   mvn test -Dtest=VirtualThreadLoadTests -Dbench.load=true [-Dbench.clients=2000 -Dbench.seconds=30]
+@EnabledIfSystemProperty(named = "bench.load", matches = "true")
+class VirtualThreadLoadTests {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadLoadTests.class);
+
+    // Latencies of the 200s; errors counts everything else (503s from the gate, timeouts, refused connections)
+    private record Run(List<Long> latencies, long errors) {
+    }
+
+    private final int clients = Integer.getInteger("bench.clients", 2000);
+    private final int seconds = Integer.getInteger("bench.seconds", 30);
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        Run platform = run("platform", false);
+        Run virtual = run("virtual", true);
+
+        assertThat(platform.latencies()).isNotEmpty();
+        assertThat(virtual.latencies()).isNotEmpty();
+    }
+
+    private Run run(String label, boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CpApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + label + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.properties.hibernate.show_sql=false",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "cp.admission.enabled=" + virtual,
+                        "cp.virtual-threads.pinning-monitor.enabled=" + virtual,
+                        "logging.level.root=WARN",
+                        "logging.level.Restart.CP.VirtualThreadLoadTests=INFO")
+                .run()) {
+            seed(context.getBean(StudentRepo.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Run result = drive(URI.create("http://localhost:" + port + "/Show?limit=50"));
+            report(label, result);
+            return result;
+        }
+    }
+
+    private void seed(StudentRepo repo) {
+        List<Student> students = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            students.add(new Student("Student " + i, "DEP" + (i % 16)));
+        }
+        repo.saveAll(students);
+    }
+
+    private Run drive(URI uri) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong errors = new AtomicLong();
+
+        List<Future<List<Long>>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                results.add(pool.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.add(System.nanoTime() - start);
+                            } else {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+        }
+
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> result : results) {
+            all.addAll(result.get());
+        }
+        return new Run(all, errors.get());
+    }
+
+    private void report(String label, Run run) {
+        List<Long> latencies = run.latencies();
+        Collections.sort(latencies);
+        long p50 = latencies.isEmpty() ? 0 : latencies.get(latencies.size() / 2);
+        long p99 = latencies.isEmpty() ? 0 : latencies.get((int) (latencies.size() * 0.99));
+        log.info("{} threads, {} clients: {} req/sec, p50={} ms, p99={} ms, {} errors",
+                label, clients, Math.round(latencies.size() / (double) seconds), p50 / 1_000_000, p99 / 1_000_000,
+                run.errors());
+    }
+}
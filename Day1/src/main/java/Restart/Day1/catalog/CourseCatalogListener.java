@@ -0,0 +1,32 @@
+package Restart.Day1.catalog;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Entity listener on Course and Teacher (the catalog shows teacher names): asks for a rebuild once the
+// change has committed, so the new snapshot reads the committed data.
+public class CourseCatalogListener {
+
+    @Autowired
+    private CourseCatalog catalog;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            catalog.requestRebuild();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                catalog.requestRebuild();
+            }
+        });
+    }
+}
@@ -1,9 +1,13 @@
 package Restart.Day1.controller;
 
-import Restart.Day1.model.Course;
+import Restart.Day1.dto.CourseView;
 import Restart.Day1.service.CourseService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/course")
@@ -12,9 +16,17 @@ public class CourseController {
     @Autowired
     private CourseService service;
 
+    @GetMapping("/all")
+    public List<CourseView> getAllCourses() {
+        return service.toGetViews();
+    }
+
     @GetMapping("/{name}") // ✅ Correctly maps /course/Music
-    public Course getCourseByName(@PathVariable String name) {
-        System.out.println(name);
-        return service.toFindByname(name);
+    public CourseView getCourseByName(@PathVariable String name) {
+        CourseView course = service.toFindByname(name);
+        if (course == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No course named " + name);
+        }
+        return course;
     }
 }
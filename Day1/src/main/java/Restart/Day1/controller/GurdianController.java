@@ -1,6 +1,8 @@
 package Restart.Day1.controller;
 
+import Restart.Day1.dto.GuardianView;
 import Restart.Day1.repo.GurdianRepo;
+import org.springframework.data.domain.Sort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -18,4 +20,9 @@ public class GurdianController {
     {
         return repo.findAllEmails();
     }
+    @GetMapping("/all")
+    public List<GuardianView> toGetAll()
+    {
+        return repo.findAllViews(Sort.by("id"));
+    }
 }
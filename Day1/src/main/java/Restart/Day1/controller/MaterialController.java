@@ -1,6 +1,7 @@
 package Restart.Day1.controller;
 
 import Restart.Day1.model.*;
+import Restart.Day1.repo.CourseMaterialRepo;
 import Restart.Day1.repo.CourseRepo;
 import Restart.Day1.repo.StudentRepo;
 import Restart.Day1.repo.TeacherRepo;
@@ -23,7 +24,7 @@ public class MaterialController {
     private CourseRepo courseRepository;
 
     @Autowired
-    private CourseMaterial materialRepository;
+    private CourseMaterialRepo materialRepository;
 
     @Autowired
     private StudentRepo studentRepository;
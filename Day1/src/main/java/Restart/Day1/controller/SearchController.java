@@ -0,0 +1,37 @@
+package Restart.Day1.controller;
+
+import Restart.Day1.dto.NameHitPage;
+import Restart.Day1.search.NameSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/search")
+public class SearchController {
+
+    private static final int MAX_SIZE = 100;
+
+    @Autowired
+    private NameSearchIndex index;
+
+    // Typeahead / name search over students and teachers, served from memory: /search/names?q=jo%20smi
+    @GetMapping("/names")
+    public NameHitPage searchNames(@RequestParam String q,
+                                   @RequestParam(required = false) String type,
+                                   @RequestParam(defaultValue = "0") int page,
+                                   @RequestParam(defaultValue = "10") int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative.");
+        }
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SIZE + ".");
+        }
+        NameSearchIndex.Kind kind = type == null ? null : NameSearchIndex.Kind.valueOf(type.toUpperCase(Locale.ROOT));
+        return index.search(q, kind, page, size);
+    }
+}
@@ -1,7 +1,10 @@
 package Restart.Day1.controller;
 
+import Restart.Day1.dto.StudentView;
+import Restart.Day1.dto.StudentWindow;
 import Restart.Day1.model.Student;
 import Restart.Day1.repo.StudentRepo;
+import Restart.Day1.service.KeysetCursor;
 import Restart.Day1.service.StudentService;
 import org.springframework.data.domain.Page ;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +14,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
@@ -24,9 +28,11 @@ public class StudentController {
     @Autowired
     private StudentService service;
 
+    private static final int MAX_WINDOW = 1000;
+
     @GetMapping("/all")
-    public List<Student> getAllStudents() { // Use a more meaningful method name
-        return repo.findAll();
+    public List<StudentView> getAllStudents() { // Use a more meaningful method name
+        return service.toGetViews(Sort.unsorted());
     }
     @GetMapping("/emails/{email}")
     public Student getEmail(@PathVariable String email) {
@@ -44,12 +50,53 @@ public class StudentController {
         return  service.getint();
     }
     @GetMapping("/sss")
-    public   List <Student> togett()
+    public   List <StudentView> togett()
     {
-        return service.togetStudentList();
+        return service.toGetViews(Sort.unsorted());
     }
     @GetMapping("/paging/{i}/{f}")
-    public Page<Student> toPaging(@PathVariable int i, @PathVariable int f) {
+    public Page<StudentView> toPaging(@PathVariable int i, @PathVariable int f) {
+        return service.toGetViewPage(toPageable(i, f));
+    }
+    // Same pages without the COUNT(*); ?estimate=true adds the cached total
+    @GetMapping("/slice/{i}/{f}")
+    public StudentWindow toSlice(@PathVariable int i, @PathVariable int f,
+                                 @RequestParam(defaultValue = "false") boolean estimate) {
+        return service.toGetSlice(toPageable(i, f), estimate);
+    }
+    // Seek paging by id or email: follow "next" instead of asking for page numbers
+    @GetMapping("/keyset")
+    public StudentWindow toKeyset(@RequestParam(defaultValue = "id") String sort,
+                                  @RequestParam(required = false) String after,
+                                  @RequestParam(defaultValue = "20") int size,
+                                  @RequestParam(defaultValue = "false") boolean estimate) {
+        if (size <= 0 || size > MAX_WINDOW) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_WINDOW + ".");
+        }
+        return service.toGetKeyset(KeysetCursor.Key.fromParam(sort), after, size, estimate);
+    }
+@GetMapping("/sort")
+    public List < StudentView> toGetSort()
+{
+    return  service.toGetViews(Sort.by("id").descending());}
+
+    // Full entity graphs (guardian, courses, teachers, materials) for callers that need them
+    @GetMapping("/details/all")
+    public List<Student> toGetDetails()
+    {
+        return service.togetStudentList();
+    }
+    @GetMapping("/details/paging/{i}/{f}")
+    public Page<Student> toGetDetailsPage(@PathVariable int i, @PathVariable int f) {
+        return service.toGetPage(toPageable(i, f));
+    }
+    @GetMapping("/details/sort")
+    public List<Student> toGetDetailsSort()
+    {
+        return service.toGetSorted(Sort.by("id").descending());
+    }
+
+    private static Pageable toPageable(int i, int f) {
         // Prevent negative values
         if (i < 0) {
             throw new IllegalArgumentException("Page number cannot be negative.");
@@ -57,14 +104,8 @@ public class StudentController {
         if (f <= 0) {
             throw new IllegalArgumentException("Page size must be greater than 0.");
         }
-
-        Pageable pageable = PageRequest.of(i, f);
-        return repo.findAll(pageable);
+        return PageRequest.of(i, f);
     }
-@GetMapping("/sort")
-    public List < Student> toGetSort()
-{
-    return  repo.findAll(Sort.by("id").descending());}
 
    }
 
@@ -0,0 +1,10 @@
+package Restart.Day1.dto;
+
+// Read model for course lists; teacher columns are null for a course without a teacher
+public record CourseView(int id,
+                         String name,
+                         int credits,
+                         Integer teacherId,
+                         String teacherFirstname,
+                         String teacherLastname) {
+}
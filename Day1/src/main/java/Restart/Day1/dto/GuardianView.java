@@ -0,0 +1,8 @@
+package Restart.Day1.dto;
+
+// Read model for guardian lists
+public record GuardianView(int id,
+                           String name,
+                           String email,
+                           String mobile) {
+}
@@ -0,0 +1,8 @@
+package Restart.Day1.dto;
+
+// One name search result; a higher score ranks first
+public record NameHit(String type,
+                      int id,
+                      String name,
+                      int score) {
+}
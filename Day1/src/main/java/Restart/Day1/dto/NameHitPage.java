@@ -0,0 +1,12 @@
+package Restart.Day1.dto;
+
+import java.util.List;
+
+// A page of ranked name search results. truncated is true when the query was too broad and only the
+// first candidates were ranked (typically one or two letters against a large index).
+public record NameHitPage(List<NameHit> items,
+                          int page,
+                          int size,
+                          int matched,
+                          boolean truncated) {
+}
@@ -0,0 +1,12 @@
+package Restart.Day1.dto;
+
+// Read model for student lists: only the columns the API shows, never managed by Hibernate;
+// guardian columns are null for a student without a guardian
+public record StudentView(int id,
+                          String firstname,
+                          String middlename,
+                          String lastname,
+                          String email,
+                          Integer guardianId,
+                          String guardianName) {
+}
@@ -0,0 +1,11 @@
+package Restart.Day1.dto;
+
+import java.util.List;
+
+// One window of a slice or keyset listing: no COUNT(*) behind it. next is the cursor for the
+// following window (keyset mode only); estimatedTotal is the cached row estimate when requested.
+public record StudentWindow(List<StudentView> items,
+                            boolean hasNext,
+                            String next,
+                            Long estimatedTotal) {
+}
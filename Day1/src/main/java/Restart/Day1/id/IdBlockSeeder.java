@@ -0,0 +1,69 @@
+package Restart.Day1.id;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+// Moves every id_block row past the highest id already in its table before the first insert, so the
+// switch from IDENTITY keeps existing rows (and their AUTO_INCREMENT ids) and never reuses an id.
+// Safe to run on several nodes at once: the value only ever moves up.
+@Component
+public class IdBlockSeeder implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdBlockSeeder.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + IdBlocks.TABLE + " ("
+                + IdBlocks.SEGMENT_COLUMN + " VARCHAR(255) NOT NULL PRIMARY KEY, "
+                + IdBlocks.VALUE_COLUMN + " BIGINT)");
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        for (Map.Entry<String, String> segment : IdBlocks.SEGMENTS.entrySet()) {
+            tx.executeWithoutResult(status -> seed(segment.getKey(), segment.getValue()));
+        }
+    }
+
+    private void seed(String entity, String segment) {
+        long next = entityManager.createQuery("SELECT COALESCE(MAX(e.id), 0) FROM " + entity + " e", Number.class)
+                .getSingleResult().longValue() + 1;
+        int updated = jdbcTemplate.update("UPDATE " + IdBlocks.TABLE + " SET " + IdBlocks.VALUE_COLUMN + " = ?"
+                        + " WHERE " + IdBlocks.SEGMENT_COLUMN + " = ? AND " + IdBlocks.VALUE_COLUMN + " < ?",
+                next, segment, next);
+        if (updated > 0) {
+            log.info("id_block '{}' moved to {}", segment, next);
+            return;
+        }
+        List<Long> current = jdbcTemplate.queryForList("SELECT " + IdBlocks.VALUE_COLUMN + " FROM " + IdBlocks.TABLE
+                + " WHERE " + IdBlocks.SEGMENT_COLUMN + " = ?", Long.class, segment);
+        if (!current.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO " + IdBlocks.TABLE + " (" + IdBlocks.SEGMENT_COLUMN + ", "
+                    + IdBlocks.VALUE_COLUMN + ") VALUES (?, ?)", segment, next);
+            log.info("id_block '{}' starts at {}", segment, next);
+        } catch (DuplicateKeyException e) {
+            // Another node inserted it first; it started from the same MAX(id)
+        }
+    }
+}
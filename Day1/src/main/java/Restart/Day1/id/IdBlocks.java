@@ -0,0 +1,33 @@
+package Restart.Day1.id;
+
+import java.util.Map;
+
+// Table-backed id allocation shared by all Day1 entities. MySQL has no sequences and IDENTITY makes
+// Hibernate insert every row on its own to read the generated key, which silently disables JDBC batching.
+// Instead each entity has a row in id_block holding the next free id. A node reserves ALLOCATION_SIZE ids
+// with one short UPDATE in its own transaction and hands them out from memory (pooled-lo, see
+// hibernate.id.optimizer.pooled.preferred), so nodes only meet on that row once per block.
+public final class IdBlocks {
+
+    public static final String TABLE = "id_block";
+    public static final String SEGMENT_COLUMN = "entity";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String STUDENT = "student";
+    public static final String GUARDIAN = "guardian";
+    public static final String TEACHER = "teacher";
+    public static final String COURSE = "course";
+    public static final String COURSE_MATERIAL = "course_material";
+
+    // Entity name -> segment, for IdBlockSeeder
+    static final Map<String, String> SEGMENTS = Map.of(
+            "Student", STUDENT,
+            "Guardian", GUARDIAN,
+            "Teacher", TEACHER,
+            "Course", COURSE,
+            "CourseMaterial", COURSE_MATERIAL);
+
+    private IdBlocks() {
+    }
+}
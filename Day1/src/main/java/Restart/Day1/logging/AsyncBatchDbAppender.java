@@ -0,0 +1,328 @@
+package Restart.Day1.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// Replacement for logback's DBAppender, which opened an unpooled connection and ran one INSERT per event
+// on the logging thread. append() only puts the event into a bounded lock-free ring buffer; writer threads
+// drain it and store up to batchSize events per multi-row INSERT over a small Hikari pool of their own.
+//
+// When the buffer fills up, overflowPolicy decides:
+//   DROP_DEBUG_FIRST - DEBUG/TRACE events are dropped once the buffer is discardDebugAbove full,
+//                      everything is dropped when it is completely full; the caller never waits
+//   BLOCK            - the caller waits for a free slot, nothing is lost
+// Events of the excluded loggers (the pool and the JDBC driver by default) and of the writer threads
+// themselves are ignored, so writing logs can never produce more logs to write.
+public class AsyncBatchDbAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    public enum OverflowPolicy { DROP_DEBUG_FIRST, BLOCK }
+
+    private static final int MAX_LOGGER_LENGTH = 255;
+    private static final int MAX_THREAD_LENGTH = 255;
+    private static final int COLUMNS = 6;
+
+    // Configured from logback.xml
+    private String url;
+    private String username;
+    private String password;
+    private String driverClassName;
+    private String table = "app_log";
+    private boolean createTable = true;
+    private int poolSize = 2;
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private long idleWaitMillis = 50;
+    private double discardDebugAbove = 0.8;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_DEBUG_FIRST;
+    private String excludedLoggers = "com.zaxxer.hikari,com.mysql";
+
+    private RingBuffer<ILoggingEvent> buffer;
+    private HikariDataSource dataSource;
+    private List<Writer> writers;
+    private String[] excludedPrefixes;
+    private int debugThreshold;
+    private volatile String fullBatchSql;
+    private volatile boolean tableReady;
+
+    private final LongAdder written = new LongAdder();
+    private final LongAdder droppedDebug = new LongAdder();
+    private final LongAdder droppedOther = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+
+    @Override
+    public void start() {
+        if (url == null) {
+            addError("No url set for appender [" + name + "]");
+            return;
+        }
+        buffer = new RingBuffer<>(capacity);
+        debugThreshold = (int) (buffer.capacity() * discardDebugAbove);
+        excludedPrefixes = excludedLoggers.isBlank() ? new String[0] : excludedLoggers.split("\\s*,\\s*");
+        fullBatchSql = insertSql(batchSize);
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("log-appender");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        if (driverClassName != null) {
+            config.setDriverClassName(driverClassName);
+        }
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(1);
+        // Never fail application startup because the log database is down; writers retry per batch
+        config.setInitializationFailTimeout(-1);
+        config.setConnectionTimeout(5000);
+        dataSource = new HikariDataSource(config);
+
+        writers = new ArrayList<>(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            Writer writer = new Writer(i);
+            writers.add(writer);
+            writer.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        // Writers drain what is left in the buffer before they exit
+        for (Writer writer : writers) {
+            LockSupport.unpark(writer);
+        }
+        for (Writer writer : writers) {
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        dataSource.close();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        if (Thread.currentThread() instanceof Writer || excluded(event.getLoggerName())) {
+            return;
+        }
+        // Formats the message and captures thread name and MDC while still on the calling thread
+        event.prepareForDeferredProcessing();
+
+        boolean debug = !event.getLevel().isGreaterOrEqual(Level.INFO);
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            while (!buffer.offer(event)) {
+                if (!isStarted()) {
+                    droppedOther.increment();
+                    return;
+                }
+                LockSupport.parkNanos(100_000);
+            }
+            return;
+        }
+        if (debug && buffer.size() >= debugThreshold) {
+            droppedDebug.increment();
+            return;
+        }
+        if (!buffer.offer(event)) {
+            (debug ? droppedDebug : droppedOther).increment();
+        }
+    }
+
+    private boolean excluded(String loggerName) {
+        for (String prefix : excludedPrefixes) {
+            if (loggerName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(List<ILoggingEvent> events) {
+        String sql = events.size() == batchSize ? fullBatchSql : insertSql(events.size());
+        try (Connection connection = dataSource.getConnection()) {
+            if (!tableReady) {
+                createTable(connection);
+            }
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int parameter = 1;
+                for (ILoggingEvent event : events) {
+                    statement.setTimestamp(parameter++, new Timestamp(event.getTimeStamp()));
+                    statement.setString(parameter++, event.getLevel().toString());
+                    statement.setString(parameter++, truncate(event.getLoggerName(), MAX_LOGGER_LENGTH));
+                    statement.setString(parameter++, truncate(event.getThreadName(), MAX_THREAD_LENGTH));
+                    statement.setString(parameter++, event.getFormattedMessage());
+                    statement.setString(parameter++, event.getThrowableProxy() == null ? null
+                            : ThrowableProxyUtil.asString(event.getThrowableProxy()));
+                }
+                statement.executeUpdate();
+            }
+            written.add(events.size());
+            batches.increment();
+        } catch (SQLException | RuntimeException e) {
+            // The batch is lost, the writer carries on with the next one
+            failed.add(events.size());
+            addError("Could not write " + events.size() + " log events to " + table, e);
+        }
+    }
+
+    private void createTable(Connection connection) throws SQLException {
+        if (createTable) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE IF NOT EXISTS " + table + " ("
+                        + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "ts DATETIME(3) NOT NULL, "
+                        + "level VARCHAR(5) NOT NULL, "
+                        + "logger VARCHAR(" + MAX_LOGGER_LENGTH + ") NOT NULL, "
+                        + "thread VARCHAR(" + MAX_THREAD_LENGTH + "), "
+                        + "message TEXT, "
+                        + "throwable TEXT)");
+            }
+        }
+        tableReady = true;
+    }
+
+    private String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (ts, level, logger, thread, message, throwable) VALUES ");
+        String row = "(" + "?, ".repeat(COLUMNS - 1) + "?)";
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "" : ", ").append(row);
+        }
+        return sql.toString();
+    }
+
+    private static String truncate(String value, int length) {
+        return value == null || value.length() <= length ? value : value.substring(0, length);
+    }
+
+    // Drains the buffer in batches; parks for idleWaitMillis when it is empty
+    private class Writer extends Thread {
+
+        Writer(int index) {
+            super("log-db-writer-" + index);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+            while (true) {
+                ILoggingEvent event;
+                while (batch.size() < batchSize && (event = buffer.poll()) != null) {
+                    batch.add(event);
+                }
+                if (!batch.isEmpty()) {
+                    write(batch);
+                    batch.clear();
+                } else if (!isStarted()) {
+                    return;
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(idleWaitMillis));
+                }
+            }
+        }
+    }
+
+    // Read by LogAppenderMetrics
+    public int getQueueDepth() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public int getQueueCapacity() {
+        return buffer == null ? 0 : buffer.capacity();
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    public long getDroppedDebug() {
+        return droppedDebug.sum();
+    }
+
+    public long getDroppedOther() {
+        return droppedOther.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    // Setters used by logback's configurator
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public void setDriverClassName(String driverClassName) {
+        this.driverClassName = driverClassName;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public void setCreateTable(boolean createTable) {
+        this.createTable = createTable;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setIdleWaitMillis(long idleWaitMillis) {
+        this.idleWaitMillis = idleWaitMillis;
+    }
+
+    public void setDiscardDebugAbove(double discardDebugAbove) {
+        this.discardDebugAbove = discardDebugAbove;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public void setExcludedLoggers(String excludedLoggers) {
+        this.excludedLoggers = excludedLoggers;
+    }
+}
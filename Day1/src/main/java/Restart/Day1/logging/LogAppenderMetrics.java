@@ -0,0 +1,71 @@
+package Restart.Day1.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+// Logback creates the appenders before Spring starts, so they are looked up in the logger context here.
+// Exports queue depth, dropped events (by DEBUG/TRACE vs. everything else), written rows, rows lost to
+// database errors and the number of INSERT batches, tagged with the appender name.
+@Component
+public class LogAppenderMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+            return;
+        }
+        Map<AsyncBatchDbAppender, Boolean> appenders = new IdentityHashMap<>();
+        for (Logger logger : context.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                if (it.next() instanceof AsyncBatchDbAppender appender) {
+                    appenders.put(appender, true);
+                }
+            }
+        }
+        for (AsyncBatchDbAppender appender : appenders.keySet()) {
+            String name = appender.getName();
+            Gauge.builder("day1.log.queue.depth", appender, AsyncBatchDbAppender::getQueueDepth)
+                    .description("Log events waiting to be written")
+                    .tag("appender", name)
+                    .register(registry);
+            Gauge.builder("day1.log.queue.capacity", appender, AsyncBatchDbAppender::getQueueCapacity)
+                    .tag("appender", name)
+                    .register(registry);
+            counter(registry, "day1.log.dropped", appender, AsyncBatchDbAppender::getDroppedDebug,
+                    "Log events dropped because the queue was full", name, "debug");
+            counter(registry, "day1.log.dropped", appender, AsyncBatchDbAppender::getDroppedOther,
+                    "Log events dropped because the queue was full", name, "other");
+            counter(registry, "day1.log.written", appender, AsyncBatchDbAppender::getWritten,
+                    "Log events stored in the database", name, null);
+            counter(registry, "day1.log.failed", appender, AsyncBatchDbAppender::getFailed,
+                    "Log events lost to database errors", name, null);
+            counter(registry, "day1.log.batches", appender, AsyncBatchDbAppender::getBatches,
+                    "Multi-row INSERT statements executed", name, null);
+        }
+    }
+
+    private static void counter(MeterRegistry registry, String meter, AsyncBatchDbAppender appender,
+                                ToDoubleFunction<AsyncBatchDbAppender> count, String description,
+                                String name, String level) {
+        FunctionCounter.Builder<AsyncBatchDbAppender> builder = FunctionCounter.builder(meter, appender, count)
+                .description(description)
+                .tag("appender", name);
+        if (level != null) {
+            builder.tag("level", level);
+        }
+        builder.register(registry);
+    }
+}
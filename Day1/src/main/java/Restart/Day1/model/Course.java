@@ -1,7 +1,13 @@
 package Restart.Day1.model;
 
+import Restart.Day1.catalog.CourseCatalogListener;
+import Restart.Day1.id.IdBlocks;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -10,10 +16,19 @@ import java.util.List;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@ToString
+@ToString(exclude = {"students", "material", "teacher"})
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course")
+// Changes trigger a rebuild of the in-memory course catalog
+@EntityListeners(CourseCatalogListener.class)
 public class Course {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "course_id")
+    @TableGenerator(name = "course_id", table = IdBlocks.TABLE, pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.COURSE,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     private int id;
 
     private String name;
@@ -25,12 +40,16 @@ public class Course {
             joinColumns = @JoinColumn(name = "course_id"),
             inverseJoinColumns = @JoinColumn(name = "student_id")
     )
+    @BatchSize(size = 50)
+    @JsonIgnoreProperties("courses")
     private List<Student> students;
 
     @OneToOne(mappedBy = "course", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @JsonIgnoreProperties("course")
     private CourseMaterial material;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "teacher_id") // FK for Teacher
+    @JsonIgnoreProperties({"courses", "hibernateLazyInitializer", "handler"})
     private Teacher teacher;
 }
@@ -1,23 +1,34 @@
 package Restart.Day1.model;
 
+import Restart.Day1.id.IdBlocks;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@ToString
+@ToString(exclude = "course")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "course_material")
 public class CourseMaterial {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "course_material_id")
+    @TableGenerator(name = "course_material_id", table = IdBlocks.TABLE, pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.COURSE_MATERIAL,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     private int id;
 
     private String url;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id")
+    @JsonIgnoreProperties("material")
     private Course course;
 
     public void save(CourseMaterial material) {
@@ -1,7 +1,12 @@
 package Restart.Day1.model;
 
+import Restart.Day1.id.IdBlocks;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -10,10 +15,17 @@ import java.util.List;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@ToString
+@ToString(exclude = "students")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "guardian")
 public class Guardian {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "guardian_id")
+    @TableGenerator(name = "guardian_id", table = IdBlocks.TABLE, pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.GUARDIAN,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     private int id;
 
     private String name;
@@ -21,5 +33,7 @@ public class Guardian {
     private String mobile;
 
     @OneToMany(mappedBy = "guardian", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
+    @JsonIgnoreProperties("guardian")
     private List<Student> students;
 }
@@ -1,7 +1,11 @@
 package Restart.Day1.model;
 
+import Restart.Day1.id.IdBlocks;
+import Restart.Day1.search.NameIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
 
@@ -17,9 +21,17 @@ import java.util.List;
                 @Index(name = "idx_student_guardian", columnList = "id, guardian_id")  // Composite Index
         }
 )
+// Fetch plan for list endpoints: guardian joined in the same select
+@NamedEntityGraph(name = "Student.guardian", attributeNodes = @NamedAttributeNode("guardian"))
+// Keeps the name search index in step with inserts, renames and deletes
+@EntityListeners(NameIndexListener.class)
 public class Student {
+    // Pooled-lo blocks from id_block instead of IDENTITY, so inserts can be batched (see IdBlocks)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "student_id")
+    @TableGenerator(name = "student_id", table = IdBlocks.TABLE, pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.STUDENT,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     private int id;
 
     @Embedded
@@ -28,11 +40,15 @@ public class Student {
     @Column(nullable = false, unique = true)
     private String email;
 
+    // Loaded in batches when touched outside a fetch plan, instead of one select per student
     @ManyToMany(mappedBy = "students", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
+    @JsonIgnoreProperties("students")
     private List<Course> courses;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "guardian_id", nullable = false)
+    @JsonIgnoreProperties({"students", "hibernateLazyInitializer", "handler"})
     private Guardian guardian;
 
 }
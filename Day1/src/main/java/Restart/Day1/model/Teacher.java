@@ -1,7 +1,14 @@
 package Restart.Day1.model;
 
+import Restart.Day1.catalog.CourseCatalogListener;
+import Restart.Day1.id.IdBlocks;
+import Restart.Day1.search.NameIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
@@ -10,15 +17,27 @@ import java.util.List;
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
-@ToString
+@ToString(exclude = "courses")
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@BatchSize(size = 50)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teacher")
+@EntityListeners({NameIndexListener.class, CourseCatalogListener.class})
 public class Teacher {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "teacher_id")
+    @TableGenerator(name = "teacher_id", table = IdBlocks.TABLE, pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.TEACHER,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     private int id;
 
     @Embedded
     private Str name;
 
-    @OneToMany(mappedBy = "teacher", fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    // Was EAGER: every Course -> Teacher load dragged in all of that teacher's courses
+    @OneToMany(mappedBy = "teacher", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "teacher_courses")
+    @JsonIgnoreProperties("teacher")
     private List<Course> courses;
 }
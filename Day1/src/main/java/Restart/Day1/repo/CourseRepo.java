@@ -1,10 +1,24 @@
 package Restart.Day1.repo;
 
+import Restart.Day1.dto.CourseView;
 import Restart.Day1.model.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface CourseRepo extends JpaRepository<Course,Integer> {
+    // Result ids go to the query cache, the course itself comes from the course region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Course findByName(String name);
+
+    @Query("SELECT new Restart.Day1.dto.CourseView(c.id, c.name, c.credits, t.id, t.name.firstname, t.name.lastname)"
+            + " FROM Course c LEFT JOIN c.teacher t")
+    List<CourseView> findAllViews(Sort sort);
 }
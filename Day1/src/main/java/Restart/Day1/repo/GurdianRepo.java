@@ -1,7 +1,9 @@
 package Restart.Day1.repo;
 
+import Restart.Day1.dto.GuardianView;
 import Restart.Day1.model.Guardian;
 
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -12,4 +14,7 @@ import java.util.List;
 public interface GurdianRepo extends JpaRepository<Guardian,Integer> {
     @Query("SELECT g.email FROM Guardian g")
     List<String> findAllEmails();
+
+    @Query("SELECT new Restart.Day1.dto.GuardianView(g.id, g.name, g.email, g.mobile) FROM Guardian g")
+    List<GuardianView> findAllViews(Sort sort);
 }
@@ -1,23 +1,72 @@
 package Restart.Day1.repo;
 
+import Restart.Day1.dto.StudentView;
 import Restart.Day1.model.Str;
 import Restart.Day1.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.hibernate.query.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
  import org.springframework.data.domain.Pageable ;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 
 public interface StudentRepo extends JpaRepository<Student,Integer> {
+    // Constructor expression: selects only these columns and returns unmanaged records
+    String STUDENT_VIEW = "SELECT new Restart.Day1.dto.StudentView(s.id, s.name.firstname, s.name.middlename,"
+            + " s.name.lastname, s.email, g.id, g.name) FROM Student s LEFT JOIN s.guardian g";
+
     @Query("SELECT s From Student  s where s.name = :name ")
     public Student findByName(@Param("name") String name);
 
+    // Student is not an entity cache region, so the query cache keeps the whole row
     @Query("SELECT s From Student s WHERE s.email=:email")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     public Student findByEmail(@Param("email") String email);
+
+    // Guardian joined into the page select; courses are added afterwards with fetchCourses
+    @EntityGraph("Student.guardian")
+    @Query(value = "SELECT s FROM Student s", countQuery = "SELECT count(s) FROM Student s")
+    org.springframework.data.domain.Page<Student> findPageWithGuardian(Pageable pageable);
+
+    // Whole student graph in one select: guardian, courses, each course's teacher and material
+    @Query("SELECT DISTINCT s FROM Student s JOIN FETCH s.guardian LEFT JOIN FETCH s.courses c"
+            + " LEFT JOIN FETCH c.teacher LEFT JOIN FETCH c.material")
+    List<Student> findAllWithCourses(Sort sort);
+
+    // Second step for paged results: initialise courses of the given students in one select
+    @Query("SELECT DISTINCT s FROM Student s LEFT JOIN FETCH s.courses c"
+            + " LEFT JOIN FETCH c.teacher LEFT JOIN FETCH c.material WHERE s IN :students")
+    List<Student> fetchCourses(@Param("students") Collection<Student> students);
+
+    @Query(STUDENT_VIEW)
+    List<StudentView> findAllViews(Sort sort);
+
+    @Query(value = STUDENT_VIEW, countQuery = "SELECT count(s) FROM Student s")
+    org.springframework.data.domain.Page<StudentView> findAllViews(Pageable pageable);
+
+    // Reads one row past the page to fill hasNext instead of running a count query
+    @Query(STUDENT_VIEW)
+    Slice<StudentView> findViewSlice(Pageable pageable);
+
+    // Keyset (seek) paging: an index range scan from the last key, whatever the depth.
+    // Pass PageRequest.of(0, size) for the limit.
+    @Query(STUDENT_VIEW + " WHERE s.id > :after ORDER BY s.id")
+    List<StudentView> findViewsAfterId(@Param("after") int after, Pageable limit);
+
+    @Query(STUDENT_VIEW + " WHERE s.email > :after ORDER BY s.email")
+    List<StudentView> findViewsAfterEmail(@Param("after") String after, Pageable limit);
 }
 
 
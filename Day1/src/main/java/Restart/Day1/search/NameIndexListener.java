@@ -0,0 +1,56 @@
+package Restart.Day1.search;
+
+import Restart.Day1.model.Str;
+import Restart.Day1.model.Student;
+import Restart.Day1.model.Teacher;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Entity listener on Student and Teacher (created through Spring, hence the injection). Changes reach
+// the index only after the transaction commits, so a rollback never leaves a phantom name behind.
+public class NameIndexListener {
+
+    @Autowired
+    private NameSearchIndex index;
+
+    @PostPersist
+    @PostUpdate
+    public void saved(Object entity) {
+        NameSearchIndex.Kind kind = kind(entity);
+        int id = entity instanceof Student student ? student.getId() : ((Teacher) entity).getId();
+        Str name = entity instanceof Student student ? student.getName() : ((Teacher) entity).getName();
+        // Copy the parts now; the entity may change again before the commit
+        String firstname = name == null ? null : name.getFirstname();
+        String middlename = name == null ? null : name.getMiddlename();
+        String lastname = name == null ? null : name.getLastname();
+        afterCommit(() -> index.put(kind, id, firstname, middlename, lastname));
+    }
+
+    @PostRemove
+    public void removed(Object entity) {
+        NameSearchIndex.Kind kind = kind(entity);
+        int id = entity instanceof Student student ? student.getId() : ((Teacher) entity).getId();
+        afterCommit(() -> index.remove(kind, id));
+    }
+
+    private static NameSearchIndex.Kind kind(Object entity) {
+        return entity instanceof Student ? NameSearchIndex.Kind.STUDENT : NameSearchIndex.Kind.TEACHER;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package Restart.Day1.search;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+// Fills NameSearchIndex before the web server starts taking requests. Names are streamed as plain
+// columns, so no entities end up in the persistence context however many rows there are.
+@Component
+public class NameIndexLoader implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(NameIndexLoader.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private NameSearchIndex index;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+        tx.executeWithoutResult(status -> {
+            load("Student", NameSearchIndex.Kind.STUDENT);
+            load("Teacher", NameSearchIndex.Kind.TEACHER);
+        });
+        log.info("Name search index built: {} names in {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void load(String entity, NameSearchIndex.Kind kind) {
+        try (Stream<Object[]> rows = entityManager.createQuery("SELECT e.id, e.name.firstname, e.name.middlename,"
+                        + " e.name.lastname FROM " + entity + " e", Object[].class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .getResultStream()) {
+            rows.forEach(row -> index.put(kind, (Integer) row[0], (String) row[1], (String) row[2], (String) row[3]));
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package Restart.Day1.search;
+
+import Restart.Day1.dto.NameHit;
+import Restart.Day1.dto.NameHitPage;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+
+// In-memory name index over the embedded Str (first/middle/last name) of students and teachers.
+// Every name is split into normalised tokens (lower case, accents stripped):
+//   - tokens are kept sorted, so a prefix is a range scan ("smi" -> smith, smithers, ...)
+//   - every token is also split into trigrams, so a fragment from the middle of a name ("mit") is an
+//     intersection of small posting sets instead of a LIKE '%mit%' table scan
+// All query tokens must match. A candidate scores 3 per query token equal to one of its tokens, 2 per
+// prefix match and 1 per infix match; ties go to the shorter name. Filled by NameIndexLoader at startup
+// and kept current by NameIndexListener. Changes to one name run inside entries.compute for its key, so
+// two concurrent updates of the same person apply their posting changes one after the other.
+@Component
+public class NameSearchIndex {
+
+    public enum Kind { STUDENT, TEACHER }
+
+    // Broad queries stop collecting candidates here so a one-letter typeahead stays sub-millisecond
+    private static final int MAX_CANDIDATES = 5000;
+    private static final Pattern SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private record Entry(Kind kind, int id, String name, List<String> tokens) {
+    }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> tokenPostings = new ConcurrentHashMap<>();
+    private final NavigableSet<String> sortedTokens = new ConcurrentSkipListSet<>();
+    private final Map<String, Set<Long>> trigramPostings = new ConcurrentHashMap<>();
+
+    public void put(Kind kind, int id, String... nameParts) {
+        long key = key(kind, id);
+        List<String> tokens = new ArrayList<>();
+        StringBuilder name = new StringBuilder();
+        for (String part : nameParts) {
+            if (part == null || part.isBlank()) {
+                continue;
+            }
+            name.append(name.isEmpty() ? "" : " ").append(part.trim());
+            for (String token : tokenize(part)) {
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+            }
+        }
+        entries.compute(key, (k, previous) -> {
+            if (previous != null) {
+                unindex(key, previous.tokens(), tokens);
+            }
+            for (String token : tokens) {
+                if (previous == null || !previous.tokens().contains(token)) {
+                    index(key, token);
+                }
+            }
+            return tokens.isEmpty() ? null : new Entry(kind, id, name.toString(), List.copyOf(tokens));
+        });
+    }
+
+    public void remove(Kind kind, int id) {
+        long key = key(kind, id);
+        entries.computeIfPresent(key, (k, previous) -> {
+            unindex(key, previous.tokens(), List.of());
+            return null;
+        });
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // kind may be null for both students and teachers
+    public NameHitPage search(String query, Kind kind, int page, int size) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new NameHitPage(List.of(), page, size, 0, false);
+        }
+        // The longest term is the most selective one to generate candidates from
+        String driver = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        // Filtered by kind while collecting, so names of the other kind never use up MAX_CANDIDATES
+        Set<Long> candidates = new HashSet<>();
+        boolean truncated = collectPrefixMatches(driver, kind, candidates);
+        if (!truncated && driver.length() >= 3) {
+            truncated = collectInfixMatches(driver, kind, candidates);
+        }
+
+        List<NameHit> hits = new ArrayList<>();
+        for (Long key : candidates) {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                continue;
+            }
+            int score = score(terms, entry.tokens());
+            if (score > 0) {
+                hits.add(new NameHit(entry.kind().name().toLowerCase(Locale.ROOT), entry.id(), entry.name(), score));
+            }
+        }
+        hits.sort(Comparator.comparingInt(NameHit::score).reversed()
+                .thenComparingInt(hit -> hit.name().length())
+                .thenComparing(NameHit::name)
+                .thenComparingInt(NameHit::id));
+
+        int from = Math.min(page * size, hits.size());
+        int to = Math.min(from + size, hits.size());
+        return new NameHitPage(List.copyOf(hits.subList(from, to)), page, size, hits.size(), truncated);
+    }
+
+    // Every query term has to match some token of the name, otherwise the name is not a hit
+    private static int score(List<String> terms, List<String> tokens) {
+        int total = 0;
+        for (String term : terms) {
+            int best = 0;
+            for (String token : tokens) {
+                if (token.equals(term)) {
+                    best = 3;
+                    break;
+                }
+                if (token.startsWith(term)) {
+                    best = Math.max(best, 2);
+                } else if (best == 0 && token.contains(term)) {
+                    best = 1;
+                }
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private boolean collectPrefixMatches(String prefix, Kind kind, Set<Long> candidates) {
+        for (String token : sortedTokens.subSet(prefix, true, prefix + Character.MAX_VALUE, false)) {
+            Set<Long> postings = tokenPostings.get(token);
+            if (postings == null) {
+                continue;
+            }
+            for (Long key : postings) {
+                if (isKind(key, kind)) {
+                    candidates.add(key);
+                }
+            }
+            if (candidates.size() >= MAX_CANDIDATES) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean collectInfixMatches(String fragment, Kind kind, Set<Long> candidates) {
+        // Intersect the trigram postings, smallest first
+        List<Set<Long>> postings = new ArrayList<>();
+        for (String trigram : trigrams(fragment)) {
+            Set<Long> keys = trigramPostings.get(trigram);
+            if (keys == null) {
+                return false;
+            }
+            postings.add(keys);
+        }
+        postings.sort(Comparator.comparingInt(Set::size));
+        for (Long key : postings.get(0)) {
+            if (!isKind(key, kind)) {
+                continue;
+            }
+            boolean inAll = true;
+            for (int i = 1; i < postings.size() && inAll; i++) {
+                inAll = postings.get(i).contains(key);
+            }
+            if (inAll) {
+                candidates.add(key);
+                if (candidates.size() >= MAX_CANDIDATES) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void index(long key, String token) {
+        tokenPostings.compute(token, (t, keys) -> {
+            if (keys == null) {
+                keys = ConcurrentHashMap.newKeySet();
+                sortedTokens.add(t);
+            }
+            keys.add(key);
+            return keys;
+        });
+        for (String trigram : trigrams(token)) {
+            // Added inside compute so a concurrent unindex cannot drop the set in between
+            trigramPostings.compute(trigram, (t, keys) -> {
+                if (keys == null) {
+                    keys = ConcurrentHashMap.newKeySet();
+                }
+                keys.add(key);
+                return keys;
+            });
+        }
+    }
+
+    // Drops the postings of the old tokens that the new name no longer has
+    private void unindex(long key, List<String> oldTokens, List<String> newTokens) {
+        Set<String> keptTrigrams = new HashSet<>();
+        for (String token : newTokens) {
+            keptTrigrams.addAll(trigrams(token));
+        }
+        for (String token : oldTokens) {
+            if (newTokens.contains(token)) {
+                continue;
+            }
+            tokenPostings.computeIfPresent(token, (t, keys) -> {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    sortedTokens.remove(t);
+                    return null;
+                }
+                return keys;
+            });
+            for (String trigram : trigrams(token)) {
+                if (!keptTrigrams.contains(trigram)) {
+                    trigramPostings.computeIfPresent(trigram, (t, keys) -> {
+                        keys.remove(key);
+                        return keys.isEmpty() ? null : keys;
+                    });
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SPLIT.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> trigrams(String token) {
+        List<String> trigrams = new ArrayList<>();
+        for (int i = 0; i + 3 <= token.length(); i++) {
+            trigrams.add(token.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private static long key(Kind kind, int id) {
+        return ((long) kind.ordinal() << 32) | (id & 0xffffffffL);
+    }
+
+    // kind null matches both
+    private static boolean isKind(long key, Kind kind) {
+        return kind == null || (key >>> 32) == kind.ordinal();
+    }
+}
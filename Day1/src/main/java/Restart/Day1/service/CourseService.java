@@ -1,16 +1,29 @@
 package Restart.Day1.service;
 
-import Restart.Day1.model.Course;
+import Restart.Day1.catalog.CourseCatalog;
+import Restart.Day1.dto.CourseView;
 import Restart.Day1.repo.CourseRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 public class CourseService {
     @Autowired
     CourseRepo repo;
-    public Course toFindByname(String name )
+    @Autowired
+    CourseCatalog catalog;
+
+    // Served from the catalog snapshot: no query, no lock
+    public CourseView toFindByname(String name )
+    {
+        return  catalog.findByName(name);
+    }
+
+    public List<CourseView> toGetViews()
     {
-        return  repo.findByName(name);
+        return repo.findAllViews(Sort.by("name"));
     }
 }
@@ -0,0 +1,52 @@
+package Restart.Day1.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque cursor for keyset paging: the sort key and the last value of a window as URL-safe base64.
+// Only unique, non-null columns are offered as keys, so "value > last" never skips or repeats a row.
+public record KeysetCursor(Key key, String value) {
+
+    public enum Key {
+        ID("id"), EMAIL("email");
+
+        private final String param;
+
+        Key(String param) {
+            this.param = param;
+        }
+
+        public static Key fromParam(String param) {
+            for (Key key : values()) {
+                if (key.param.equalsIgnoreCase(param)) {
+                    return key;
+                }
+            }
+            throw new IllegalArgumentException("Keyset paging sorts by id or email, not " + param);
+        }
+    }
+
+    public String encode() {
+        String raw = key.name() + ":" + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor, Key expected) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
+        }
+        int colon = raw.indexOf(':');
+        // A cursor only continues the ordering it was issued for
+        if (colon < 0 || !raw.substring(0, colon).equals(expected.name())) {
+            throw new InvalidCursorException(cursor);
+        }
+        String value = raw.substring(colon + 1);
+        if (expected == Key.ID && !value.matches("-?\\d{1,10}")) {
+            throw new InvalidCursorException(cursor);
+        }
+        return new KeysetCursor(expected, value);
+    }
+}
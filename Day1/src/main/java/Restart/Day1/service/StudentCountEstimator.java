@@ -0,0 +1,49 @@
+package Restart.Day1.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Total for slice and keyset listings without a COUNT(*) per request. Refreshed in the background from
+// InnoDB's table statistics (information_schema.TABLES.TABLE_ROWS: instant, typically within a few percent);
+// databases without them get an exact count, still only once per refresh interval.
+@Component
+public class StudentCountEstimator {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentCountEstimator.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile Long estimate;
+
+    // null until the first refresh has run
+    public Long estimate() {
+        return estimate;
+    }
+
+    @Scheduled(fixedDelayString = "${day1.paging.count-refresh-ms:60000}")
+    public void refresh() {
+        try {
+            List<Long> rows = jdbcTemplate.queryForList("SELECT TABLE_ROWS FROM information_schema.TABLES"
+                    + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'student'", Long.class);
+            if (!rows.isEmpty() && rows.get(0) != null) {
+                estimate = rows.get(0);
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.debug("No table statistics, falling back to an exact count: {}", e.getMessage());
+        }
+        try {
+            estimate = jdbcTemplate.queryForObject("SELECT count(*) FROM student", Long.class);
+        } catch (DataAccessException e) {
+            log.warn("Could not refresh the student count estimate: {}", e.getMessage());
+        }
+    }
+}
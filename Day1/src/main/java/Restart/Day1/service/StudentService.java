@@ -1,9 +1,16 @@
 package Restart.Day1.service;
 
+import Restart.Day1.dto.StudentView;
+import Restart.Day1.dto.StudentWindow;
 import Restart.Day1.model.Student;
 import Restart.Day1.repo.StudentRepo;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -14,6 +21,9 @@ public class StudentService {
     @Autowired
     StudentRepo repo;
 
+    @Autowired
+    StudentCountEstimator countEstimator;
+
     public String getHello() {
         return "Hello From  KRM....";
     }
@@ -23,7 +33,56 @@ public class StudentService {
     }
 
     public List<Student> togetStudentList() {
-        return repo.findAll();
+        return repo.findAllWithCourses(Sort.unsorted());
+    }
+
+    // Default read path for lists: one narrow select into records
+    public List<StudentView> toGetViews(Sort sort) {
+        return repo.findAllViews(sort);
+    }
+
+    public Page<StudentView> toGetViewPage(Pageable pageable) {
+        return repo.findAllViews(pageable);
+    }
+
+    // Offset paging without the count query: still O(offset), but one select per page
+    public StudentWindow toGetSlice(Pageable pageable, boolean estimate) {
+        Slice<StudentView> slice = repo.findViewSlice(pageable);
+        return new StudentWindow(slice.getContent(), slice.hasNext(), null,
+                estimate ? countEstimator.estimate() : null);
+    }
+
+    // Seek paging: same cost on page 1 and page 100,000. cursor is null for the first window.
+    public StudentWindow toGetKeyset(KeysetCursor.Key key, String cursor, int size, boolean estimate) {
+        String after = cursor == null ? null : KeysetCursor.decode(cursor, key).value();
+        // One extra row tells whether another window follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<StudentView> rows = switch (key) {
+            case ID -> repo.findViewsAfterId(after == null ? 0 : Integer.parseInt(after), limit);
+            case EMAIL -> repo.findViewsAfterEmail(after == null ? "" : after, limit);
+        };
+        boolean hasNext = rows.size() > size;
+        List<StudentView> items = hasNext ? rows.subList(0, size) : rows;
+        String next = null;
+        if (hasNext) {
+            StudentView last = items.get(items.size() - 1);
+            next = new KeysetCursor(key, key == KeysetCursor.Key.ID ? String.valueOf(last.id()) : last.email()).encode();
+        }
+        return new StudentWindow(List.copyOf(items), hasNext, next, estimate ? countEstimator.estimate() : null);
+    }
+
+    // One select for the whole graph, whatever the number of students
+    public List<Student> toGetSorted(Sort sort) {
+        return repo.findAllWithCourses(sort);
+    }
+
+    // Fixed three selects per page: the page with guardians, the count, and the courses of that page
+    public Page<Student> toGetPage(Pageable pageable) {
+        Page<Student> page = repo.findPageWithGuardian(pageable);
+        if (page.hasContent()) {
+            repo.fetchCourses(page.getContent());
+        }
+        return page;
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
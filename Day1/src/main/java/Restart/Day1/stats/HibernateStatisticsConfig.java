@@ -0,0 +1,48 @@
+package Restart.Day1.stats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Hooks the statement counter into the session factory and times every statement at the JDBC level
+@Configuration
+@EnableConfigurationProperties(QueryBudgetProperties.class)
+public class HibernateStatisticsConfig {
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter() {
+        return new SqlStatementCounter();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer statisticsCustomizer(SqlStatementCounter sqlStatementCounter) {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    // Wraps the pool in a datasource-proxy that reports each execution to SqlLatencyListener; unwrap() still
+    // reaches the Hikari pool underneath, so the pool metrics keep working
+    @Bean
+    public static BeanPostProcessor sqlLatencyDataSourceWrapper(ObjectProvider<MeterRegistry> registry,
+                                                                @Value("${day1.sql-latency.max-shapes:500}") int maxShapes) {
+        SqlLatencyListener listener = new SqlLatencyListener(registry, maxShapes);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource).listener(listener).build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package Restart.Day1.stats;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+// Exports hibernate.generate_statistics as meters instead of DEBUG log lines:
+// per-entity and per-collection load/fetch counters (fetches are the N+1 loads), flushes,
+// prepared statements, and hit ratios of the query cache and every second-level cache region.
+// Statement latency histograms are recorded separately by SqlLatencyListener.
+@Component
+public class HibernateStatisticsMetrics implements MeterBinder {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (String entity : statistics.getEntityNames()) {
+            counter(registry, "hibernate.entity.loads", "Entities loaded", statistics,
+                    s -> s.getEntityStatistics(entity).getLoadCount(), "entity", entity);
+            counter(registry, "hibernate.entity.fetches", "Entities fetched by a separate select", statistics,
+                    s -> s.getEntityStatistics(entity).getFetchCount(), "entity", entity);
+        }
+        for (String role : statistics.getCollectionRoleNames()) {
+            counter(registry, "hibernate.collection.loads", "Collections loaded", statistics,
+                    s -> s.getCollectionStatistics(role).getLoadCount(), "role", role);
+            counter(registry, "hibernate.collection.fetches", "Collections fetched by a separate select", statistics,
+                    s -> s.getCollectionStatistics(role).getFetchCount(), "role", role);
+        }
+
+        counter(registry, "hibernate.flushes", "Session flushes", statistics, Statistics::getFlushCount);
+        counter(registry, "hibernate.statements.prepared", "JDBC statements prepared", statistics,
+                Statistics::getPrepareStatementCount);
+
+        Gauge.builder("hibernate.query.cache.hit.ratio", statistics,
+                        s -> ratio(s.getQueryCacheHitCount(), s.getQueryCacheMissCount()))
+                .description("Query cache hits / (hits + misses)")
+                .register(registry);
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics, s -> regionRatio(s, region))
+                    .description("Second-level cache hits / (hits + misses) per region")
+                    .tag("region", region)
+                    .register(registry);
+        }
+    }
+
+    private static void counter(MeterRegistry registry, String name, String description, Statistics statistics,
+                                ToDoubleFunction<Statistics> count, String... tags) {
+        FunctionCounter.builder(name, statistics, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static double regionRatio(Statistics statistics, String region) {
+        CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+        return regionStatistics == null ? Double.NaN
+                : ratio(regionStatistics.getHitCount(), regionStatistics.getMissCount());
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? Double.NaN : (double) hits / total;
+    }
+}
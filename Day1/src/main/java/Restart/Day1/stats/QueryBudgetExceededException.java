@@ -0,0 +1,9 @@
+package Restart.Day1.stats;
+
+// Thrown after the response in FAIL mode, so MockMvc tests see an N+1 regression as an error
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String endpoint, long statements, int budget) {
+        super(endpoint + " ran " + statements + " SQL statements, budget is " + budget);
+    }
+}
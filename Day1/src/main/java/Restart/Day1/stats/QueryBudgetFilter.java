@@ -0,0 +1,80 @@
+package Restart.Day1.stats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+// Counts the SQL statements each request runs (rendering included) and compares them with the
+// budget of its endpoint. Over budget: a warning plus day1.query.budget.exceeded in LOG mode,
+// a QueryBudgetExceededException in FAIL mode.
+@Component
+@ConditionalOnProperty(prefix = "day1.query-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final SqlStatementCounter counter;
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry registry;
+
+    public QueryBudgetFilter(SqlStatementCounter counter, QueryBudgetProperties properties, MeterRegistry registry) {
+        this.counter = counter;
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith("/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        counter.start();
+        long statements;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statements = counter.stop();
+        }
+
+        // Set by the dispatcher once a handler matched; unmatched requests (404s) are not budgeted
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        String endpoint = pattern.toString();
+        DistributionSummary.builder("day1.query.statements")
+                .description("SQL statements per request")
+                .tag("uri", endpoint)
+                .register(registry)
+                .record(statements);
+
+        Integer budget = properties.budgetFor(endpoint);
+        if (budget == null || statements <= budget) {
+            return;
+        }
+        Counter.builder("day1.query.budget.exceeded")
+                .description("Requests that ran more SQL statements than their endpoint's budget")
+                .tag("uri", endpoint)
+                .register(registry)
+                .increment();
+        if (properties.getMode() == QueryBudgetProperties.Mode.FAIL) {
+            throw new QueryBudgetExceededException(endpoint, statements, budget);
+        }
+        log.warn("{} {} ran {} SQL statements, budget is {}", request.getMethod(), endpoint, statements, budget);
+    }
+}
@@ -0,0 +1,32 @@
+package Restart.Day1.stats;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-endpoint SQL statement budgets (day1.query-budget.*). Endpoints are keyed by their
+// request mapping pattern, e.g. day1.query-budget.endpoints[/students/paging/{i}/{f}]=2
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "day1.query-budget")
+public class QueryBudgetProperties {
+
+    public enum Mode { LOG, FAIL }
+
+    private boolean enabled = true;
+
+    // LOG in production; FAIL in tests so an N+1 regression breaks the build
+    private Mode mode = Mode.LOG;
+
+    // Budget for endpoints without an entry of their own; null means unlimited
+    private Integer defaultBudget;
+
+    private Map<String, Integer> endpoints = new LinkedHashMap<>();
+
+    public Integer budgetFor(String pattern) {
+        return endpoints.getOrDefault(pattern, defaultBudget);
+    }
+}
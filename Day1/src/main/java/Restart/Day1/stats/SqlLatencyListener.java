@@ -0,0 +1,70 @@
+package Restart.Day1.stats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Records the execution time of every JDBC statement into day1.sql.latency, a timer with a percentile
+// histogram tagged with the statement's shape (see SqlShape). Hibernate's own statistics only keep
+// count/min/max/avg per query. Shapes come from the statements the code issues, so their number is bounded;
+// should it still pass maxShapes, further shapes are logged once and recorded under "untracked".
+class SqlLatencyListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SqlLatencyListener.class);
+
+    static final String UNTRACKED = "untracked";
+
+    private final ObjectProvider<MeterRegistry> registry;
+    private final int maxShapes;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final AtomicBoolean warned = new AtomicBoolean();
+
+    // The registry is looked up on first use: this listener is built with the data source, before the meters
+    SqlLatencyListener(ObjectProvider<MeterRegistry> registry, int maxShapes) {
+        this.registry = registry;
+        this.maxShapes = maxShapes;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // One entry, unless plain Statement.addBatch() was given different statements
+        for (QueryInfo query : queryInfoList) {
+            timer(SqlShape.of(query.getQuery())).record(execInfo.getElapsedTime() / queryInfoList.size(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private Timer timer(String shape) {
+        Timer timer = timers.get(shape);
+        if (timer != null) {
+            return timer;
+        }
+        if (timers.size() >= maxShapes) {
+            if (warned.compareAndSet(false, true)) {
+                log.warn("More than {} SQL shapes, recording the rest as '{}'; first one left out: {}",
+                        maxShapes, UNTRACKED, shape);
+            }
+            shape = UNTRACKED;
+        }
+        return timers.computeIfAbsent(shape, s -> Timer.builder("day1.sql.latency")
+                .description("Execution time of each SQL statement shape")
+                .tag("sql", s)
+                .publishPercentileHistogram()
+                .register(registry.getObject()));
+    }
+}
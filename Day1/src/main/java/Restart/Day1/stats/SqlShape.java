@@ -0,0 +1,30 @@
+package Restart.Day1.stats;
+
+import java.util.regex.Pattern;
+
+// Reduces a SQL string to its shape, so executions of the same statement share one timer tag:
+// comments dropped, literals and IN lists of any length turned into a single ?, whitespace collapsed.
+//   select s1_0.id from student s1_0 where s1_0.id in (?,?,?) and s1_0.name='Ann'
+//   -> select s1_0.id from student s1_0 where s1_0.id in (?) and s1_0.name=?
+final class SqlShape {
+
+    private static final Pattern COMMENT = Pattern.compile("/\\*.*?\\*/|--[^\\n]*", Pattern.DOTALL);
+    private static final Pattern STRING = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern ROWS = Pattern.compile("\\(\\?\\)(?:\\s*,\\s*\\(\\?\\))+");
+    private static final Pattern SPACE = Pattern.compile("\\s+");
+
+    private SqlShape() {
+    }
+
+    static String of(String sql) {
+        String shape = COMMENT.matcher(sql).replaceAll(" ");
+        shape = STRING.matcher(shape).replaceAll("?");
+        shape = NUMBER.matcher(shape).replaceAll("?");
+        shape = LIST.matcher(shape).replaceAll("(?)");
+        // Multi-row VALUES (?), (?), ... of any length
+        shape = ROWS.matcher(shape).replaceAll("(?)");
+        return SPACE.matcher(shape).replaceAll(" ").trim().toLowerCase();
+    }
+}
@@ -0,0 +1,136 @@
+package Restart.Day1;
+
+import Restart.Day1.model.Course;
+import Restart.Day1.model.CourseMaterial;
+import Restart.Day1.model.Guardian;
+import Restart.Day1.model.Str;
+import Restart.Day1.model.Student;
+import Restart.Day1.model.Teacher;
+import Restart.Day1.stats.SqlStatementCounter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Saves full Teacher -> Course -> (CourseMaterial, Students -> Guardian) aggregates with JDBC batching off
+// (batch size 1, what IDENTITY ids forced on every insert) and on (hibernate.jdbc.batch_size), and logs
+// rows/sec and the number of statements sent. The test profile's H2 unless bench.url names a MySQL schema;
+// Day1's tables and id_block rows there are created and dropped with the context, so don't reuse the app's:
+//   mvn test -Dtest=AggregateInsertBenchmarkTests -Dbench.ids=true -Dbench.aggregates=2000 \
+//       -Dbench.url="jdbc:mysql://localhost:3306/day1_bench?rewriteBatchedStatements=true" -Dbench.password=... \
+//       -Dbench.driver=com.mysql.cj.jdbc.Driver -Dbench.dialect=org.hibernate.dialect.MySQLDialect
+@EnabledIfSystemProperty(named = "bench.ids", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${bench.url:jdbc:h2:mem:day1bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1}",
+        "spring.datasource.username=${bench.user:sa}",
+        "spring.datasource.password=${bench.password:}",
+        "spring.datasource.driver-class-name=${bench.driver:org.h2.Driver}",
+        "spring.jpa.database-platform=${bench.dialect:org.hibernate.dialect.H2Dialect}",
+        "day1.query-budget.enabled=false"
+})
+@ActiveProfiles("test")
+class AggregateInsertBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(AggregateInsertBenchmarkTests.class);
+
+    private static final int COURSES = 3;
+    private static final int STUDENTS_PER_COURSE = 20;
+    private static final int GUARDIANS = 4;
+    private static final int FLUSH_EVERY = 10;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private SqlStatementCounter counter;
+
+    // Keeps names and emails unique across runs
+    private int runs;
+
+    @Test
+    void batchedInsertsOfWholeAggregates() {
+        int aggregates = Integer.getInteger("bench.aggregates", 2000);
+        // Warm-up: class loading, JIT and the first id blocks
+        run(aggregates / 10, 1);
+        run(aggregates / 10, 30);
+
+        Result unbatched = run(aggregates, 1);
+        Result batched = run(aggregates, 30);
+        log.info("batch size 1: {} rows in {} statements, {} rows/sec",
+                unbatched.rows, unbatched.statements, Math.round(unbatched.rowsPerSecond()));
+        log.info("batch size 30: {} rows in {} statements, {} rows/sec ({}x)",
+                batched.rows, batched.statements, Math.round(batched.rowsPerSecond()),
+                String.format("%.1f", batched.rowsPerSecond() / unbatched.rowsPerSecond()));
+
+        // Every row used to be its own statement; with table ids they go out in batches
+        assertThat(unbatched.statements).isGreaterThanOrEqualTo(unbatched.rows);
+        assertThat(batched.statements).isLessThan(batched.rows / 10);
+    }
+
+    private Result run(int aggregates, int batchSize) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+        String run = String.valueOf(runs++);
+        long rows = 0;
+        counter.start();
+        long start = System.nanoTime();
+        try {
+            entityManager.getTransaction().begin();
+            for (int a = 0; a < aggregates; a++) {
+                rows += persistAggregate(entityManager, run + "-" + a);
+                if ((a + 1) % FLUSH_EVERY == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+            entityManager.getTransaction().commit();
+        } finally {
+            entityManager.close();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(rows, counter.stop(), elapsed);
+    }
+
+    // Returns the number of rows the aggregate inserts, join table included
+    private int persistAggregate(EntityManager entityManager, String a) {
+        List<Guardian> guardians = new ArrayList<>();
+        for (int g = 0; g < GUARDIANS; g++) {
+            Guardian guardian = new Guardian(0, "Guardian " + a + "-" + g, null, null, null);
+            entityManager.persist(guardian);
+            guardians.add(guardian);
+        }
+        Teacher teacher = new Teacher(0, new Str("Teacher", null, a), new ArrayList<>());
+        for (int c = 0; c < COURSES; c++) {
+            Course course = new Course(0, "Course " + a + "-" + c, 3, new ArrayList<>(), null, teacher);
+            for (int s = 0; s < STUDENTS_PER_COURSE; s++) {
+                Student student = new Student(0, new Str("Student", null, a + "-" + c + "-" + s),
+                        "student" + a + "-" + c + "-" + s + "@bench.com", null, guardians.get(s % GUARDIANS));
+                entityManager.persist(student);
+                course.getStudents().add(student);
+            }
+            course.setMaterial(new CourseMaterial(0, "https://material/" + a + "/" + c, course));
+            teacher.getCourses().add(course);
+        }
+        // Cascades to the courses and their materials
+        entityManager.persist(teacher);
+        return GUARDIANS + 1 + COURSES * (2 + 2 * STUDENTS_PER_COURSE);
+    }
+
+    private record Result(long rows, long statements, long elapsedNanos) {
+
+        double rowsPerSecond() {
+            return rows / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
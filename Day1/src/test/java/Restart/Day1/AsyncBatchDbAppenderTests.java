@@ -0,0 +1,78 @@
+package Restart.Day1;
+
+import Restart.Day1.logging.AsyncBatchDbAppender;
+import Restart.Day1.logging.RingBuffer;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AsyncBatchDbAppenderTests {
+
+    @Test
+    void ringBufferRejectsWhenFullAndKeepsOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertThat(buffer.capacity()).isEqualTo(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.poll()).isEqualTo(0);
+        assertThat(buffer.offer(4)).isTrue();
+        for (int i = 1; i <= 4; i++) {
+            assertThat(buffer.poll()).isEqualTo(i);
+        }
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    void eventsFromManyThreadsAreWrittenInBatches() throws Exception {
+        String url = "jdbc:h2:mem:applog;MODE=MySQL;DB_CLOSE_DELAY=-1";
+        LoggerContext context = new LoggerContext();
+        AsyncBatchDbAppender appender = new AsyncBatchDbAppender();
+        appender.setContext(context);
+        appender.setName("DB");
+        appender.setUrl(url);
+        appender.setUsername("sa");
+        appender.setOverflowPolicy(AsyncBatchDbAppender.OverflowPolicy.BLOCK);
+        appender.setCapacity(256);
+        appender.setBatchSize(64);
+        appender.start();
+
+        Logger logger = context.getLogger("Restart.Day1.test");
+        logger.addAppender(appender);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int thread = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 500; i++) {
+                    logger.info("event {} from {}", i, thread);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // stop() drains the queue before closing the pool
+        appender.stop();
+
+        assertThat(appender.getWritten()).isEqualTo(2000);
+        assertThat(appender.getFailed()).isZero();
+        assertThat(appender.getBatches()).isLessThan(2000);
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT count(*) FROM app_log WHERE message LIKE 'event %'")) {
+            rows.next();
+            assertThat(rows.getLong(1)).isEqualTo(2000);
+        }
+    }
+}
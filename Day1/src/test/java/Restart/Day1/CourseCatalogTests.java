@@ -0,0 +1,86 @@
+package Restart.Day1;
+
+import Restart.Day1.catalog.CourseCatalog;
+import Restart.Day1.model.Course;
+import Restart.Day1.model.Str;
+import Restart.Day1.model.Teacher;
+import Restart.Day1.repo.CourseRepo;
+import Restart.Day1.repo.TeacherRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CourseCatalogTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private CourseCatalog catalog;
+
+    @Autowired
+    private CourseRepo courseRepo;
+
+    @Autowired
+    private TeacherRepo teacherRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void committedCoursesShowUpWithoutQueriesOnRead() throws Exception {
+        Instant before = catalog.builtAt();
+        Teacher teacher = teacherRepo.save(new Teacher(0, new Str("Ada", null, "Lovelace"), null));
+        courseRepo.save(new Course(0, "Catalog course", 5, new ArrayList<>(), null, teacher));
+
+        // The commit queues a background rebuild
+        long deadline = System.currentTimeMillis() + 5000;
+        while (catalog.findByName("Catalog course") == null && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(catalog.builtAt()).isAfter(before);
+        catalog.awaitQueuedRebuilds(Duration.ofSeconds(10));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(get("/course/{name}", "Catalog course"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.credits").value(5))
+                .andExpect(jsonPath("$.teacherLastname").value("Lovelace"));
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void namesMatchRegardlessOfCase() throws Exception {
+        courseRepo.save(new Course(0, "Mixed Case Course", 3, new ArrayList<>(), null, null));
+        catalog.rebuild();
+
+        assertThat(catalog.findByName("mixed case course")).isNotNull();
+        mvc.perform(get("/course/{name}", "MIXED CASE COURSE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Mixed Case Course"));
+    }
+
+    @Test
+    void unknownCourseIsNotFound() throws Exception {
+        mvc.perform(get("/course/{name}", "No such course")).andExpect(status().isNotFound());
+    }
+}
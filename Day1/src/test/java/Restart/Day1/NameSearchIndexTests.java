@@ -0,0 +1,148 @@
+package Restart.Day1;
+
+import Restart.Day1.dto.NameHit;
+import Restart.Day1.dto.NameHitPage;
+import Restart.Day1.search.NameSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NameSearchIndexTests {
+
+    private static final Logger log = LoggerFactory.getLogger(NameSearchIndexTests.class);
+
+    private NameSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NameSearchIndex();
+        index.put(NameSearchIndex.Kind.STUDENT, 1, "John", null, "Smith");
+        index.put(NameSearchIndex.Kind.STUDENT, 2, "Johnny", "B", "Goode");
+        index.put(NameSearchIndex.Kind.STUDENT, 3, "Anna", null, "Smithers");
+        index.put(NameSearchIndex.Kind.TEACHER, 1, "José", null, "Blacksmith");
+    }
+
+    @Test
+    void exactBeatsPrefixBeatsInfix() {
+        NameHitPage page = index.search("smith", null, 0, 10);
+        assertThat(page.items()).extracting(NameHit::name)
+                .containsExactly("John Smith", "Anna Smithers", "José Blacksmith");
+        assertThat(page.items()).extracting(NameHit::score).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    void everyTermMustMatchAndAccentsAreIgnored() {
+        assertThat(index.search("joh smi", null, 0, 10).items()).extracting(NameHit::name)
+                .containsExactly("John Smith");
+        assertThat(index.search("jose", NameSearchIndex.Kind.TEACHER, 0, 10).items()).extracting(NameHit::id)
+                .containsExactly(1);
+        assertThat(index.search("jose", NameSearchIndex.Kind.STUDENT, 0, 10).items()).isEmpty();
+    }
+
+    @Test
+    void renamesAndRemovalsUpdateTheIndex() {
+        index.put(NameSearchIndex.Kind.STUDENT, 1, "John", null, "Carpenter");
+        assertThat(index.search("smith", NameSearchIndex.Kind.STUDENT, 0, 10).items()).extracting(NameHit::id)
+                .containsExactly(3);
+        index.remove(NameSearchIndex.Kind.STUDENT, 3);
+        assertThat(index.search("smith", NameSearchIndex.Kind.STUDENT, 0, 10).items()).isEmpty();
+        assertThat(index.search("carp", null, 0, 10).matched()).isEqualTo(1);
+    }
+
+    @Test
+    void pagesThroughRankedHits() {
+        NameHitPage first = index.search("j", null, 0, 2);
+        NameHitPage second = index.search("j", null, 1, 2);
+        assertThat(first.matched()).isEqualTo(3);
+        assertThat(first.items()).hasSize(2);
+        assertThat(second.items()).hasSize(1);
+    }
+
+    @Test
+    void kindIsFilteredBeforeTheCandidateLimit() {
+        NameSearchIndex crowded = new NameSearchIndex();
+        for (int id = 1; id <= 6000; id++) {
+            crowded.put(NameSearchIndex.Kind.STUDENT, id, "Sam", null, "Student" + id);
+        }
+        crowded.put(NameSearchIndex.Kind.TEACHER, 1, "Sam", null, "Teacher");
+
+        NameHitPage page = crowded.search("sam", NameSearchIndex.Kind.TEACHER, 0, 10);
+        assertThat(page.items()).extracting(NameHit::name).containsExactly("Sam Teacher");
+        assertThat(page.truncated()).isFalse();
+    }
+
+    @Test
+    void concurrentRenamesOfOneNameLeaveConsistentPostings() throws Exception {
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            String lastname = "Writer" + t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    index.put(NameSearchIndex.Kind.STUDENT, 9, "Race", null, lastname);
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // The last name that won must still have its postings, whatever the losers removed
+        NameHitPage race = index.search("race", null, 0, 10);
+        assertThat(race.items()).hasSize(1);
+        String winner = race.items().get(0).name().substring("Race ".length());
+        assertThat(index.search(winner, null, 0, 10).matched()).isEqualTo(1);
+        index.remove(NameSearchIndex.Kind.STUDENT, 9);
+        assertThat(index.search("race", null, 0, 10).matched()).isZero();
+        assertThat(index.search("writer", null, 0, 10).matched()).isZero();
+    }
+
+    // Typeahead latency over a few million generated names; the median query must stay under a millisecond:
+    //   mvn test -Dtest=NameSearchIndexTests -Dbench.search=true -Dbench.names=3000000
+    @Test
+    @EnabledIfSystemProperty(named = "bench.search", matches = "true")
+    void typeaheadLatencyOverMillionsOfNames() {
+        int names = Integer.getInteger("bench.names", 3_000_000);
+        Random random = new Random(42);
+        NameSearchIndex large = new NameSearchIndex();
+        for (int i = 1; i <= names; i++) {
+            large.put(NameSearchIndex.Kind.STUDENT, i, word(random), null, word(random));
+        }
+
+        String[] queries = new String[10_000];
+        for (int i = 0; i < queries.length; i++) {
+            String word = word(random);
+            queries[i] = word.substring(0, 1 + random.nextInt(word.length()));
+        }
+        for (String query : queries) {
+            large.search(query, null, 0, 10);
+        }
+        long[] nanos = new long[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            long start = System.nanoTime();
+            large.search(queries[i], null, 0, 10);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        long p50 = nanos[nanos.length / 2];
+        log.info("{} names: p50 {} us, p99 {} us, max {} us", names,
+                p50 / 1000, nanos[nanos.length * 99 / 100] / 1000, nanos[nanos.length - 1] / 1000);
+        assertThat(large.search("a", null, 0, 10).items()).isNotEmpty();
+        assertThat(p50).isLessThan(1_000_000L);
+    }
+
+    private static String word(Random random) {
+        char[] word = new char[4 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
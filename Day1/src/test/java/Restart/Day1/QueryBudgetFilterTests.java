@@ -0,0 +1,78 @@
+package Restart.Day1;
+
+import Restart.Day1.stats.QueryBudgetExceededException;
+import Restart.Day1.stats.QueryBudgetFilter;
+import Restart.Day1.stats.QueryBudgetProperties;
+import Restart.Day1.stats.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryBudgetFilterTests {
+
+    private static final String ENDPOINT = "/students/paging/{i}/{f}";
+
+    private SqlStatementCounter counter;
+    private QueryBudgetProperties properties;
+    private SimpleMeterRegistry registry;
+    private QueryBudgetFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        counter = new SqlStatementCounter();
+        properties = new QueryBudgetProperties();
+        properties.getEndpoints().put(ENDPOINT, 2);
+        registry = new SimpleMeterRegistry();
+        filter = new QueryBudgetFilter(counter, properties, registry);
+    }
+
+    @Test
+    void withinBudgetPasses() throws Exception {
+        run(2);
+        assertThat(registry.find("day1.query.budget.exceeded").counter()).isNull();
+        assertThat(registry.get("day1.query.statements").tag("uri", ENDPOINT).summary().totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void overBudgetIsCountedInLogMode() throws Exception {
+        run(5);
+        assertThat(registry.get("day1.query.budget.exceeded").tag("uri", ENDPOINT).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void overBudgetThrowsInFailMode() {
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        assertThatThrownBy(() -> run(3))
+                .isInstanceOf(QueryBudgetExceededException.class)
+                .hasMessageContaining(ENDPOINT);
+    }
+
+    @Test
+    void endpointsWithoutBudgetUseTheDefault() throws Exception {
+        properties.setMode(QueryBudgetProperties.Mode.FAIL);
+        properties.getEndpoints().clear();
+        run(50);
+
+        properties.setDefaultBudget(10);
+        assertThatThrownBy(() -> run(11)).isInstanceOf(QueryBudgetExceededException.class);
+    }
+
+    // Simulates a request to ENDPOINT whose handler runs the given number of statements
+    private void run(int statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/paging/0/10");
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ENDPOINT);
+            for (int i = 0; i < statements; i++) {
+                counter.inspect("select 1");
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+}
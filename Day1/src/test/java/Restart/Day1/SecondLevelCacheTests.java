@@ -0,0 +1,86 @@
+package Restart.Day1;
+
+import Restart.Day1.model.Course;
+import Restart.Day1.model.Str;
+import Restart.Day1.model.Teacher;
+import Restart.Day1.repo.CourseRepo;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The test profile switches the caches off for the statement counts; this class turns them back on
+// (on its own in-memory database) and checks that repeated reads are served from the regions.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:day1cache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true"
+})
+@ActiveProfiles("test")
+class SecondLevelCacheTests {
+
+    @Autowired
+    private CourseRepo courseRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (entityManager.createQuery("SELECT count(c) FROM Course c", Long.class).getSingleResult() > 0) {
+                return;
+            }
+            Teacher teacher = new Teacher(0, new Str("Cached", null, "Teacher"), null);
+            entityManager.persist(teacher);
+            entityManager.persist(new Course(0, "Cached course", 4, new ArrayList<>(), null, teacher));
+        });
+    }
+
+    @Test
+    void findByNameIsServedFromTheQueryAndCourseRegions() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        courseRepo.findByName("Cached course");
+
+        statistics.clear();
+        Course course = courseRepo.findByName("Cached course");
+
+        assertThat(course.getCredits()).isEqualTo(4);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("course").getHitCount()).isPositive();
+    }
+
+    @Test
+    void regionsAreExportedAsMetrics() {
+        courseRepo.findByName("Cached course");
+        courseRepo.findByName("Cached course");
+
+        assertThat(registry.get("cache.gets").tags("cache", "course", "result", "hit").functionCounter().count())
+                .isPositive();
+        assertThat(registry.find("cache.evictions").tag("cache", "guardian").functionCounter()).isNotNull();
+        assertThat(registry.find("cache.gets").tag("cache", "default-query-results-region").functionCounter())
+                .isNotNull();
+    }
+}
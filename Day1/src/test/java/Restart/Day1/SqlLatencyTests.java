@@ -0,0 +1,62 @@
+package Restart.Day1;
+
+import Restart.Day1.stats.HibernateStatisticsConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlLatencyTests {
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void executionsOfTheSameStatementShareOneTimer() {
+        JdbcTemplate jdbc = new JdbcTemplate(wrap("shapes", 500));
+        jdbc.execute("CREATE TABLE IF NOT EXISTS item (id INT PRIMARY KEY, name VARCHAR(20))");
+        jdbc.queryForList("SELECT name FROM item WHERE id IN (?, ?)", 1, 2);
+        jdbc.queryForList("SELECT name FROM item WHERE id IN (?, ?, ?, ?)", 1, 2, 3, 4);
+        jdbc.queryForList("/* load item */ SELECT name FROM item WHERE id IN (7)");
+        jdbc.queryForList("SELECT name FROM item WHERE name = 'Ann'");
+
+        Timer byId = registry.get("day1.sql.latency").tag("sql", "select name from item where id in (?)").timer();
+        assertThat(byId.count()).isEqualTo(3);
+        assertThat(registry.get("day1.sql.latency").tag("sql", "select name from item where name = ?").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shapesBeyondTheCapAreRecordedAsUntracked() {
+        JdbcTemplate jdbc = new JdbcTemplate(wrap("cap", 2));
+        jdbc.queryForObject("SELECT 1", Integer.class);
+        jdbc.queryForObject("SELECT CURRENT_DATE", Object.class);
+        jdbc.queryForObject("SELECT CURRENT_TIME", Object.class);
+        jdbc.queryForObject("SELECT CURRENT_TIMESTAMP", Object.class);
+
+        assertThat(registry.find("day1.sql.latency").timers()).hasSize(3);
+        assertThat(registry.get("day1.sql.latency").tag("sql", "untracked").timer().count()).isEqualTo(2);
+    }
+
+    private DataSource wrap(String name, int maxShapes) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("registry", registry));
+        return (DataSource) HibernateStatisticsConfig
+                .sqlLatencyDataSourceWrapper(beans.getBeanProvider(MeterRegistry.class), maxShapes)
+                .postProcessAfterInitialization(dataSource, "dataSource");
+    }
+}
@@ -0,0 +1,160 @@
+package Restart.Day1;
+
+import Restart.Day1.model.Course;
+import Restart.Day1.model.CourseMaterial;
+import Restart.Day1.model.Guardian;
+import Restart.Day1.model.Str;
+import Restart.Day1.model.Student;
+import Restart.Day1.model.Teacher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every student endpoint must run a fixed number of statements, however many students,
+// guardians, courses and teachers there are (rendering the JSON included).
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StudentQueryCountTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (entityManager.createQuery("SELECT count(s) FROM Student s", Long.class).getSingleResult() > 0) {
+                return;
+            }
+            List<Guardian> guardians = new ArrayList<>();
+            for (int g = 0; g < 5; g++) {
+                Guardian guardian = new Guardian(0, "Guardian " + g, "guardian" + g + "@mail.com", "900000000" + g, null);
+                entityManager.persist(guardian);
+                guardians.add(guardian);
+            }
+            List<Teacher> teachers = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                Teacher teacher = new Teacher(0, new Str("Teacher", null, String.valueOf(t)), null);
+                entityManager.persist(teacher);
+                teachers.add(teacher);
+            }
+            List<Student> students = new ArrayList<>();
+            for (int s = 0; s < 40; s++) {
+                Student student = new Student(0, new Str("Student", null, String.valueOf(s)),
+                        "student" + s + "@mail.com", null, guardians.get(s % guardians.size()));
+                entityManager.persist(student);
+                students.add(student);
+            }
+            for (int c = 0; c < 6; c++) {
+                Course course = new Course(0, "Course " + c, 3, new ArrayList<>(), null, teachers.get(c % teachers.size()));
+                for (int s = c; s < students.size(); s += 2) {
+                    course.getStudents().add(students.get(s));
+                }
+                course.setMaterial(new CourseMaterial(0, "https://material/" + c, course));
+                entityManager.persist(course);
+            }
+        });
+    }
+
+    @Test
+    void allStudentsIsOneStatement() throws Exception {
+        assertStatements("/students/all", 1);
+    }
+
+    @Test
+    void serviceListIsOneStatement() throws Exception {
+        assertStatements("/students/sss", 1);
+    }
+
+    @Test
+    void sortedIsOneStatement() throws Exception {
+        assertStatements("/students/sort", 1);
+    }
+
+    @Test
+    void pagingIsTwoStatements() throws Exception {
+        // page of views, count
+        assertStatements("/students/paging/1/10", 2);
+    }
+
+    @Test
+    void sliceAndKeysetAreOneStatement() throws Exception {
+        assertStatements("/students/slice/1/10", 1);
+        assertStatements("/students/keyset?size=10", 1);
+        assertStatements("/students/keyset?sort=email&size=10&estimate=true", 1);
+    }
+
+    @Test
+    void keysetWalkVisitsEveryStudentOnce() throws Exception {
+        for (String sort : List.of("id", "email")) {
+            Set<Integer> seen = new HashSet<>();
+            String next = null;
+            do {
+                String url = "/students/keyset?size=7&sort=" + sort + (next == null ? "" : "&after=" + next);
+                JsonNode window = objectMapper.readTree(mvc.perform(get(url)).andExpect(status().isOk())
+                        .andReturn().getResponse().getContentAsString());
+                window.get("items").forEach(item -> assertThat(seen.add(item.get("id").asInt())).isTrue());
+                next = window.get("next").isNull() ? null : window.get("next").asText();
+            } while (next != null);
+            assertThat(seen).hasSize(40);
+        }
+    }
+
+    @Test
+    void coursesAndGuardiansAreOneStatement() throws Exception {
+        assertStatements("/course/all", 1);
+        assertStatements("/gurdian/all", 1);
+    }
+
+    @Test
+    void detailsAreOneStatement() throws Exception {
+        assertStatements("/students/details/all", 1);
+        assertStatements("/students/details/sort", 1);
+    }
+
+    @Test
+    void detailsPagingIsThreeStatements() throws Exception {
+        // page with guardians, count, courses of the page
+        assertStatements("/students/details/paging/1/10", 3);
+    }
+
+    private void assertStatements(String url, long expected) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mvc.perform(get(url)).andExpect(status().isOk());
+        assertThat(statistics.getPrepareStatementCount()).as(url).isEqualTo(expected);
+    }
+}
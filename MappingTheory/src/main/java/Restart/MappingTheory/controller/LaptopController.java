@@ -1,15 +1,26 @@
 package Restart.MappingTheory.controller;
 
+import Restart.MappingTheory.dto.BrandPriceStats;
+import Restart.MappingTheory.dto.LaptopWindow;
 import Restart.MappingTheory.model.Laptop;
-import Restart.MappingTheory.model.Person;
 import Restart.MappingTheory.service.LaptopService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
 
 @RestController
 public class LaptopController {
+    private static final int MAX_WINDOW = 500;
+
     @Autowired
     LaptopService service;
     @PostMapping("/laptop")
@@ -17,4 +28,39 @@ public class LaptopController {
     { System.out.println("I LOVE YOUUU....");
         return service.toGetLap(lap);
     }
+
+    // Laptops priced min..max (inclusive), cheapest first; follow nextPrice/nextId for more
+    @GetMapping("/laptop/price")
+    public LaptopWindow toGetPriceRange(@RequestParam(defaultValue = "0") BigDecimal min,
+                                        @RequestParam BigDecimal max,
+                                        @RequestParam(required = false) String brand,
+                                        @RequestParam(required = false) BigDecimal afterPrice,
+                                        @RequestParam(required = false) Integer afterId,
+                                        @RequestParam(defaultValue = "50") int size)
+    {
+        if (min.compareTo(max) > 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "min must not be greater than max");
+        }
+        if (size <= 0 || size > MAX_WINDOW) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "size must be between 1 and " + MAX_WINDOW);
+        }
+        if ((afterPrice == null) != (afterId == null)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "afterPrice and afterId go together");
+        }
+        return service.toGetPriceRange(brand, min, max, afterPrice, afterId, size);
+    }
+
+    // count/min/max/avg per brand, computed by the database
+    @GetMapping("/laptop/stats")
+    public List<BrandPriceStats> toGetBrandStats()
+    {
+        return service.toGetBrandStats();
+    }
+
+    @GetMapping("/laptop/stats/{brand}")
+    public BrandPriceStats toGetBrandStats(@PathVariable String brand)
+    {
+        return service.toGetBrandStats(brand)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No priced laptops for " + brand));
+    }
 }
@@ -0,0 +1,57 @@
+package Restart.MappingTheory.controller;
+
+import Restart.MappingTheory.dto.LaptopRegistration;
+import Restart.MappingTheory.dto.LaptopTicket;
+import Restart.MappingTheory.writebehind.LaptopWriteBehind;
+import Restart.MappingTheory.writebehind.QueueFullException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.util.UUID;
+
+// Only there with mapping.laptop.write-behind.enabled=true; POST /laptop stays synchronous either way
+@RestController
+@ConditionalOnProperty(prefix = "mapping.laptop.write-behind", name = "enabled", havingValue = "true")
+public class LaptopQueueController {
+    @Autowired
+    LaptopWriteBehind writeBehind;
+
+    // 202 with a tracking id; the laptop is saved with the next batch
+    @PostMapping("/laptop/queued")
+    public ResponseEntity<LaptopTicket> toQueue(@RequestBody LaptopRegistration laptop)
+    {
+        if (laptop.price() != null && laptop.price().signum() < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "price must not be negative");
+        }
+        LaptopTicket ticket = writeBehind.submit(laptop);
+        return ResponseEntity.accepted()
+                .location(URI.create("/laptop/queued/" + ticket.trackingId()))
+                .body(ticket);
+    }
+
+    @GetMapping("/laptop/queued/{trackingId}")
+    public LaptopTicket toGetTicket(@PathVariable UUID trackingId)
+    {
+        return writeBehind.ticket(trackingId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown or expired tracking id"));
+    }
+
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<String> toRetryLater(QueueFullException e)
+    {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                .body(e.getMessage());
+    }
+}
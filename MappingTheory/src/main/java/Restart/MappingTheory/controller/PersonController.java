@@ -1,19 +1,32 @@
 package Restart.MappingTheory.controller;
 
+import Restart.MappingTheory.dto.BulkResult;
 import Restart.MappingTheory.model.Person;
+import Restart.MappingTheory.service.PersonBulkService;
 import Restart.MappingTheory.service.PersonService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 public class PersonController {
     @Autowired
     PersonService service;
+    @Autowired
+    PersonBulkService bulkService;
     @PostMapping("/person")
     public Person toGetPerson(@RequestBody Person person)
     { System.out.println("I LOVE YOOUU....");
         return service.toGetDetails(person);
     }
+
+    // Whole aggregates (person, passport, laptops) in one request; see PersonBulkService
+    @PostMapping("/person/bulk")
+    public BulkResult toSaveAll(@RequestBody List<Person> people)
+    {
+        return bulkService.toSaveAll(people);
+    }
 }
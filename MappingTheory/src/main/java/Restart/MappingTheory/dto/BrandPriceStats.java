@@ -0,0 +1,7 @@
+package Restart.MappingTheory.dto;
+
+import java.math.BigDecimal;
+
+// Aggregated by the database over the laptops of one brand that have a price
+public record BrandPriceStats(String brand, long count, BigDecimal min, BigDecimal max, Double avg) {
+}
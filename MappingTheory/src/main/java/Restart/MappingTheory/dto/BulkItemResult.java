@@ -0,0 +1,18 @@
+package Restart.MappingTheory.dto;
+
+import java.util.List;
+
+// Outcome of one element of a /person/bulk request; index is its position in the request array
+public record BulkItemResult(int index, Status status, Integer personId, Integer passportId,
+                             List<Integer> laptopIds, String error) {
+
+    public enum Status { CREATED, FAILED }
+
+    public static BulkItemResult created(int index, int personId, Integer passportId, List<Integer> laptopIds) {
+        return new BulkItemResult(index, Status.CREATED, personId, passportId, laptopIds, null);
+    }
+
+    public static BulkItemResult failed(int index, String error) {
+        return new BulkItemResult(index, Status.FAILED, null, null, List.of(), error);
+    }
+}
@@ -0,0 +1,7 @@
+package Restart.MappingTheory.dto;
+
+import java.util.List;
+
+public record BulkResult(int created, int failed, long elapsedMillis, double itemsPerSecond,
+                         List<BulkItemResult> items) {
+}
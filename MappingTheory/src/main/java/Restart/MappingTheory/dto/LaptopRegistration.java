@@ -0,0 +1,7 @@
+package Restart.MappingTheory.dto;
+
+import java.math.BigDecimal;
+
+// A laptop waiting in the write-behind queue (and its journal): plain values, no entity references
+public record LaptopRegistration(String brand, String model, BigDecimal price, Integer personId) {
+}
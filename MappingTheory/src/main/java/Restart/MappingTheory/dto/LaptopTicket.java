@@ -0,0 +1,13 @@
+package Restart.MappingTheory.dto;
+
+import java.util.UUID;
+
+// What a client can learn about a queued laptop through its tracking id
+public record LaptopTicket(UUID trackingId, Status status, Integer laptopId, String error) {
+
+    public enum Status { QUEUED, SAVED, FAILED }
+
+    public static LaptopTicket queued(UUID trackingId) {
+        return new LaptopTicket(trackingId, Status.QUEUED, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package Restart.MappingTheory.dto;
+
+import java.math.BigDecimal;
+
+// Laptop without its Person, read straight from the laptop table
+public record LaptopView(int id, String brand, String model, BigDecimal price, Integer personId) {
+}
@@ -0,0 +1,9 @@
+package Restart.MappingTheory.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// One window of a price range, ordered by (price, id). Pass nextPrice/nextId back as
+// afterPrice/afterId for the following window; both are null on the last one.
+public record LaptopWindow(List<LaptopView> items, boolean hasNext, BigDecimal nextPrice, Integer nextId) {
+}
@@ -0,0 +1,44 @@
+package Restart.MappingTheory.id;
+
+import Restart.MappingTheory.repo.LaptopRepo;
+import Restart.MappingTheory.repo.PersonRepo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Rows created before the switch from IDENTITY keep their AUTO_INCREMENT ids, so the person and laptop
+// segments must start past them. The id_block table itself comes from the schema export like the entity
+// tables; each segment is then raised to MAX(id) + 1 with one upsert that never lowers it, which makes
+// concurrent startups of several instances harmless without a transaction or a retry.
+@Component
+public class IdBlockSeeder implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(IdBlockSeeder.class);
+
+    private static final String RAISE = "INSERT INTO " + IdBlocks.TABLE
+            + " (" + IdBlocks.SEGMENT_COLUMN + ", " + IdBlocks.VALUE_COLUMN + ") VALUES (?, ?)"
+            + " ON DUPLICATE KEY UPDATE " + IdBlocks.VALUE_COLUMN + " = GREATEST(" + IdBlocks.VALUE_COLUMN + ", ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PersonRepo personRepo;
+
+    @Autowired
+    private LaptopRepo laptopRepo;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        raise(IdBlocks.PERSON, personRepo.findMaxId() + 1L);
+        raise(IdBlocks.LAPTOP, laptopRepo.findMaxId() + 1L);
+    }
+
+    private void raise(String segment, long floor) {
+        jdbcTemplate.update(RAISE, segment, floor, floor);
+        log.info("id_block '{}' starts at {} or later", segment, floor);
+    }
+}
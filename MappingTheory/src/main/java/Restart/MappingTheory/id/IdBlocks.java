@@ -0,0 +1,19 @@
+package Restart.MappingTheory.id;
+
+// Names for the id_block table behind the Person and Laptop @TableGenerators. IDENTITY makes Hibernate
+// send each insert on its own to read the key back, which rules out JDBC batching; with a block of
+// ALLOCATION_SIZE ids reserved per round trip the ids are known at persist() and inserts go out in
+// ordered batches. Passport has no segment: it shares its Person's id (see Passport.person).
+public final class IdBlocks {
+
+    public static final String TABLE = "id_block";
+    public static final String SEGMENT_COLUMN = "entity";
+    public static final String VALUE_COLUMN = "next_val";
+    public static final int ALLOCATION_SIZE = 50;
+
+    public static final String PERSON = "person";
+    public static final String LAPTOP = "laptop";
+
+    private IdBlocks() {
+    }
+}
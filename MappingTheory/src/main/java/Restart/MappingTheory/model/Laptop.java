@@ -1,24 +1,40 @@
 package Restart.MappingTheory.model;
 
+import Restart.MappingTheory.id.IdBlocks;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
+
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
 @ToString
+// (brand, price) serves the per-brand range and statistics queries from the index alone; (price) the
+// ranges across all brands. See db/laptop-price-decimal.sql for existing databases.
+@Table(indexes = {
+        @Index(name = "idx_laptop_brand_price", columnList = "brand, price"),
+        @Index(name = "idx_laptop_price", columnList = "price")
+})
 public class Laptop {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "laptop_id")
+    @TableGenerator(name = "laptop_id", table = IdBlocks.TABLE, pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.LAPTOP,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     private int id;
 
     private String brand;
     private String model;
-    private String price;
+    @Column(precision = 12, scale = 2)
+    private BigDecimal price;
 
     @ManyToOne
     @JoinColumn(name = "person_id") // ✅ Correctly references the `id` in Person table
+    @JsonIgnoreProperties({"passport", "laptops", "hibernateLazyInitializer"})
+    @ToString.Exclude
     private Person person;
 }
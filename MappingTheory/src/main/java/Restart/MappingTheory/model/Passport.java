@@ -1,5 +1,6 @@
 package Restart.MappingTheory.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -11,9 +12,15 @@ import lombok.*;
 @ToString
 public class Passport {
     private  Str name;
+    // Same value as the person's id: no generator, no extra key column, no separate unique index
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private  int passid;
-    @OneToOne(mappedBy = "passport",fetch = FetchType.EAGER, cascade = CascadeType.ALL)
+    // Owning side and primary key at once. The id is the foreign key, so the person can always be
+    // left as a lazy proxy without looking anything up.
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "passid")
+    @JsonIgnoreProperties({"passport", "laptops", "hibernateLazyInitializer"})
+    @ToString.Exclude
     private Person person;
 }
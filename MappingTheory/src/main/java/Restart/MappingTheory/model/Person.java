@@ -1,5 +1,7 @@
 package Restart.MappingTheory.model;
 
+import Restart.MappingTheory.id.IdBlocks;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -13,16 +15,25 @@ import java.util.List;
 @ToString
 public class Person {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "person_id")
+    @TableGenerator(name = "person_id", table = IdBlocks.TABLE, pkColumnName = IdBlocks.SEGMENT_COLUMN,
+            valueColumnName = IdBlocks.VALUE_COLUMN, pkColumnValue = IdBlocks.PERSON,
+            allocationSize = IdBlocks.ALLOCATION_SIZE)
     private int id;
 
     @Embedded  // ✅ Embed the `Str` class here
     private Str name;
 
-    @OneToOne
-    @JoinColumn(name = "person_passport")
+    // Inverse side of the shared primary key (Passport.passid = id). Without bytecode enhancement
+    // Hibernate has to query the passport table to tell null from a proxy; the enhanced class
+    // (hibernate-enhance-maven-plugin) loads it on first access instead.
+    @OneToOne(mappedBy = "person", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @JsonIgnoreProperties("person")
+    @ToString.Exclude
     private Passport passport;
 
     @OneToMany(mappedBy = "person", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    @JsonIgnoreProperties("person")
+    @ToString.Exclude
     private List<Laptop> laptops;
 }
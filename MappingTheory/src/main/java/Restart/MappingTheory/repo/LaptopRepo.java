@@ -1,9 +1,52 @@
 package Restart.MappingTheory.repo;
 
+import Restart.MappingTheory.dto.BrandPriceStats;
+import Restart.MappingTheory.dto.LaptopView;
 import Restart.MappingTheory.model.Laptop;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface LaptopRepo extends JpaRepository<Laptop,Integer> {
+
+    String LAPTOP_VIEW = "SELECT new Restart.MappingTheory.dto.LaptopView(l.id, l.brand, l.model, l.price, l.person.id)"
+            + " FROM Laptop l";
+
+    // Seek from (afterPrice, afterId) to max along the price index; the first window starts at
+    // (min, 0). Pass PageRequest.of(0, size) for the limit.
+    String PRICE_RANGE = " l.price >= :afterPrice AND l.price <= :max"
+            + " AND (l.price > :afterPrice OR l.id > :afterId)"
+            + " ORDER BY l.price, l.id";
+
+    @Query(LAPTOP_VIEW + " WHERE" + PRICE_RANGE)
+    List<LaptopView> findViewsInPriceRange(@Param("afterPrice") BigDecimal afterPrice,
+                                           @Param("afterId") int afterId,
+                                           @Param("max") BigDecimal max, Pageable limit);
+
+    @Query(LAPTOP_VIEW + " WHERE l.brand = :brand AND" + PRICE_RANGE)
+    List<LaptopView> findViewsInPriceRange(@Param("brand") String brand,
+                                           @Param("afterPrice") BigDecimal afterPrice,
+                                           @Param("afterId") int afterId,
+                                           @Param("max") BigDecimal max, Pageable limit);
+
+    String BRAND_STATS = "SELECT new Restart.MappingTheory.dto.BrandPriceStats(l.brand, count(l.price), min(l.price),"
+            + " max(l.price), avg(l.price)) FROM Laptop l WHERE l.price IS NOT NULL";
+
+    // GROUP BY brand walks idx_laptop_brand_price without touching the rows
+    @Query(BRAND_STATS + " GROUP BY l.brand ORDER BY l.brand")
+    List<BrandPriceStats> findBrandStats();
+
+    @Query(BRAND_STATS + " AND l.brand = :brand GROUP BY l.brand")
+    Optional<BrandPriceStats> findBrandStats(@Param("brand") String brand);
+
+    // Floor for the laptop id_block segment, see IdBlockSeeder
+    @Query("SELECT COALESCE(MAX(l.id), 0) FROM Laptop l")
+    int findMaxId();
 }
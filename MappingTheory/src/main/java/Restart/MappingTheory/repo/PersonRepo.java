@@ -2,9 +2,13 @@ package Restart.MappingTheory.repo;
 
 import Restart.MappingTheory.model.Person;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface PersonRepo extends JpaRepository<Person,Integer> {
 
+    // Floor for the person id_block segment, see IdBlockSeeder
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Person p")
+    int findMaxId();
 }
@@ -1,10 +1,19 @@
 package Restart.MappingTheory.service;
 
+import Restart.MappingTheory.dto.BrandPriceStats;
+import Restart.MappingTheory.dto.LaptopView;
+import Restart.MappingTheory.dto.LaptopWindow;
 import Restart.MappingTheory.model.Laptop;
 import Restart.MappingTheory.repo.LaptopRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class LaptopService {
     @Autowired
@@ -13,4 +22,32 @@ public class LaptopService {
     {
         return repo.save(laptop);
     }
+
+    // brand may be null for all brands; afterPrice/afterId are the nextPrice/nextId of the previous window
+    public LaptopWindow toGetPriceRange(String brand, BigDecimal min, BigDecimal max,
+                                        BigDecimal afterPrice, Integer afterId, int size) {
+        boolean first = afterPrice == null || afterPrice.compareTo(min) < 0;
+        BigDecimal fromPrice = first ? min : afterPrice;
+        int fromId = first || afterId == null ? 0 : afterId;
+        // One extra row tells whether another window follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<LaptopView> rows = brand == null
+                ? repo.findViewsInPriceRange(fromPrice, fromId, max, limit)
+                : repo.findViewsInPriceRange(brand, fromPrice, fromId, max, limit);
+        boolean hasNext = rows.size() > size;
+        List<LaptopView> items = hasNext ? rows.subList(0, size) : rows;
+        LaptopView last = hasNext ? items.get(items.size() - 1) : null;
+        return new LaptopWindow(List.copyOf(items), hasNext,
+                last == null ? null : last.price(), last == null ? null : last.id());
+    }
+
+    public List<BrandPriceStats> toGetBrandStats()
+    {
+        return repo.findBrandStats();
+    }
+
+    public Optional<BrandPriceStats> toGetBrandStats(String brand)
+    {
+        return repo.findBrandStats(brand);
+    }
 }
@@ -2,15 +2,33 @@ package Restart.MappingTheory.service;
 
 import Restart.MappingTheory.model.Passport;
 import Restart.MappingTheory.repo.PassportRepo;
+import Restart.MappingTheory.repo.PersonRepo;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
 public class PassportService {
     @Autowired
     PassportRepo repo;
+    @Autowired
+    PersonRepo personRepo;
+    // A passport takes its person's id, so it can only be added to a saved person: {"person": {"id": 1}, ...}
     public Passport toGetPassport(Passport passport)
     {
+        if (passport.getPerson() == null || passport.getPerson().getId() == 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A passport needs person.id");
+        }
+        int personId = passport.getPerson().getId();
+        if (!personRepo.existsById(personId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No person " + personId);
+        }
+        if (repo.existsById(personId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Person " + personId + " already has a passport");
+        }
+        passport.setPassid(0);
+        passport.setPerson(personRepo.getReferenceById(personId));
         return repo.save(passport);
     }
 }
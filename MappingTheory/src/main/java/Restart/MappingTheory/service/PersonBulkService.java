@@ -0,0 +1,177 @@
+package Restart.MappingTheory.service;
+
+import Restart.MappingTheory.dto.BulkItemResult;
+import Restart.MappingTheory.dto.BulkResult;
+import Restart.MappingTheory.model.Laptop;
+import Restart.MappingTheory.model.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Saves whole Person aggregates (passport and laptops included) in one request. The items are written in
+// chunks of chunkSize, one transaction per chunk; inside a chunk the table-generated ids let Hibernate
+// send the inserts as ordered JDBC batches instead of one round trip per row. If a chunk fails it is
+// rolled back and its items are retried one by one, each in its own transaction, so one bad item only
+// fails itself and the result still says what happened to every element.
+@Service
+public class PersonBulkService {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonBulkService.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${mapping.bulk.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${mapping.bulk.max-items:10000}")
+    private int maxItems;
+
+    public BulkResult toSaveAll(List<Person> people) {
+        if (people == null || people.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a non-empty array of people");
+        }
+        if (people.size() > maxItems) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + maxItems + " people per request, got " + people.size());
+        }
+        long start = System.nanoTime();
+        BulkItemResult[] results = new BulkItemResult[people.size()];
+        List<Integer> chunk = new ArrayList<>(chunkSize);
+        for (int i = 0; i < people.size(); i++) {
+            String invalid = validate(people.get(i));
+            if (invalid != null) {
+                results[i] = BulkItemResult.failed(i, invalid);
+                continue;
+            }
+            chunk.add(i);
+            if (chunk.size() == chunkSize) {
+                saveChunk(people, chunk, results);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(people, chunk, results);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        int created = (int) Arrays.stream(results).filter(r -> r.status() == BulkItemResult.Status.CREATED).count();
+        double seconds = elapsed / 1_000_000_000.0;
+        return new BulkResult(created, results.length - created, elapsed / 1_000_000,
+                seconds > 0 ? people.size() / seconds : 0, List.of(results));
+    }
+
+    private void saveChunk(List<Person> people, List<Integer> chunk, BulkItemResult[] results) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            tx.executeWithoutResult(status -> {
+                for (int index : chunk) {
+                    persist(people.get(index));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+            for (int index : chunk) {
+                results[index] = created(index, people.get(index));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Bulk chunk of {} people failed, retrying them one by one: {}", chunk.size(), message(e));
+            for (int index : chunk) {
+                Person person = people.get(index);
+                // Ids handed out in the rolled back transaction must not make the retry look like a merge
+                resetIds(person);
+                try {
+                    tx.executeWithoutResult(status -> persist(person));
+                    results[index] = created(index, person);
+                } catch (RuntimeException single) {
+                    resetIds(person);
+                    results[index] = BulkItemResult.failed(index, message(single));
+                }
+            }
+        }
+    }
+
+    // Cascades to the passport, which takes the person's id, and to the laptops
+    private void persist(Person person) {
+        // The owning sides of both relations; the JSON cannot carry them
+        if (person.getPassport() != null) {
+            person.getPassport().setPerson(person);
+        }
+        if (person.getLaptops() != null) {
+            person.getLaptops().forEach(laptop -> laptop.setPerson(person));
+        }
+        entityManager.persist(person);
+    }
+
+    // Rejects what would fail anyway before it can take a whole chunk down with it
+    private static String validate(Person person) {
+        if (person == null) {
+            return "Person is null";
+        }
+        if (person.getName() == null || isBlank(person.getName().getFirstname())) {
+            return "Person needs a name.firstname";
+        }
+        if (person.getId() != 0) {
+            return "Person id must not be set";
+        }
+        if (person.getPassport() != null && person.getPassport().getPassid() != 0) {
+            return "Passport id must not be set";
+        }
+        if (person.getLaptops() != null) {
+            for (Laptop laptop : person.getLaptops()) {
+                if (laptop == null) {
+                    return "Laptop is null";
+                }
+                if (laptop.getId() != 0) {
+                    return "Laptop id must not be set";
+                }
+                if (laptop.getPrice() != null && laptop.getPrice().signum() < 0) {
+                    return "Laptop price must not be negative";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static BulkItemResult created(int index, Person person) {
+        Integer passportId = person.getPassport() == null ? null : person.getPassport().getPassid();
+        List<Integer> laptopIds = person.getLaptops() == null ? List.of()
+                : person.getLaptops().stream().map(Laptop::getId).toList();
+        return BulkItemResult.created(index, person.getId(), passportId, laptopIds);
+    }
+
+    private static void resetIds(Person person) {
+        person.setId(0);
+        if (person.getPassport() != null) {
+            person.getPassport().setPassid(0);
+        }
+        if (person.getLaptops() != null) {
+            person.getLaptops().forEach(laptop -> laptop.setId(0));
+        }
+    }
+
+    private static String message(Throwable e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -11,6 +11,13 @@ public class PersonService {
     PersonRepo repo;
     public Person toGetDetails(Person person)
     {
+        // The JSON carries the children without their owning side
+        if (person.getPassport() != null) {
+            person.getPassport().setPerson(person);
+        }
+        if (person.getLaptops() != null) {
+            person.getLaptops().forEach(laptop -> laptop.setPerson(person));
+        }
         return  repo.save(person);
     }
 }
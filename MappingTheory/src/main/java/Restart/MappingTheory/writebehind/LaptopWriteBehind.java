@@ -0,0 +1,505 @@
+package Restart.MappingTheory.writebehind;
+
+import Restart.MappingTheory.dto.LaptopRegistration;
+import Restart.MappingTheory.dto.LaptopTicket;
+import Restart.MappingTheory.model.Laptop;
+import Restart.MappingTheory.model.Person;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.exception.JDBCConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Write-behind for laptop registrations (mapping.laptop.write-behind.enabled=true). submit() only puts the
+// laptop on a bounded queue and hands out a tracking id; one flusher thread saves the queue in batches of
+// batchSize, or whatever arrived within maxWait, one transaction per batch. The request threads never hold
+// a connection, so a burst of registrations needs one pooled connection instead of one per request.
+//
+// - Backpressure: a request waits at most offerTimeout for room in a full queue, then gets a
+//   QueueFullException (503 with Retry-After).
+// - Failures: if a batch fails because of one laptop (unknown person, bad data) the batch is saved one
+//   by one and only that laptop is FAILED. If the database is unreachable the batch is kept and retried
+//   after retryBackoff for as long as it takes. Transient errors (deadlocks, lock or query timeouts) are
+//   retried the same way but count as attempts; after maxAttempts the laptops are tried one by one and
+//   those that still fail are FAILED, so a laptop that keeps deadlocking cannot hold up the queue.
+// - Shutdown: the queue is saved for up to shutdownTimeout; what is left is appended to the NDJSON
+//   journal. The next start puts it back on the queue ahead of any new laptop, where it is saved,
+//   retried and finished like every other laptop. Laptops still in memory when the process is killed
+//   without a shutdown are lost: only use the queue for registrations a client can repeat.
+@Component
+@ConditionalOnProperty(prefix = "mapping.laptop.write-behind", name = "enabled", havingValue = "true")
+public class LaptopWriteBehind implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(LaptopWriteBehind.class);
+
+    // One line of the journal; attempts counts the transient failures so far
+    record Pending(UUID trackingId, long enqueuedAtMillis, LaptopRegistration laptop, int attempts) {
+
+        Pending retried() {
+            return new Pending(trackingId, enqueuedAtMillis, laptop, attempts + 1);
+        }
+    }
+
+    private record Tracked(LaptopTicket ticket, long finishedAtMillis) {
+    }
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private WriteBehindProperties properties;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    private BlockingQueue<Pending> queue;
+    private TransactionTemplate tx;
+    private final Map<UUID, Tracked> tickets = new ConcurrentHashMap<>();
+    // The batch the flusher is working on; read by stop() only once the flusher has exited
+    private final List<Pending> inFlight = new ArrayList<>();
+    private Thread flusher;
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private volatile boolean abandon;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder saved = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder journaled = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private volatile Timer waitTimer;
+    private volatile Timer flushTimer;
+
+    public LaptopTicket submit(LaptopRegistration laptop) {
+        if (!accepting) {
+            rejected.increment();
+            throw new QueueFullException("Laptop queue is not accepting registrations", properties.getRetryBackoff());
+        }
+        Pending pending = new Pending(UUID.randomUUID(), System.currentTimeMillis(), laptop, 0);
+        LaptopTicket ticket = LaptopTicket.queued(pending.trackingId());
+        // Registered first: the flusher may finish the laptop before offer() returns
+        tickets.put(pending.trackingId(), new Tracked(ticket, 0));
+        boolean queued;
+        try {
+            queued = queue.offer(pending, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            tickets.remove(pending.trackingId());
+            rejected.increment();
+            throw new QueueFullException("Laptop queue is full", properties.getRetryBackoff());
+        }
+        accepted.increment();
+        return ticket;
+    }
+
+    public Optional<LaptopTicket> ticket(UUID trackingId) {
+        return Optional.ofNullable(tickets.get(trackingId)).map(Tracked::ticket);
+    }
+
+    // For tests and operators: waits until everything accepted so far has been saved or failed
+    public boolean awaitDrained(Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (queue.isEmpty() && tickets.values().stream().allMatch(t -> t.finishedAtMillis() > 0)) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        tx = new TransactionTemplate(transactionManager);
+        requeueJournal();
+        running = true;
+        abandon = false;
+        flusher = Thread.ofPlatform().name("laptop-write-behind").daemon(true).start(this::flushLoop);
+        accepting = true;
+    }
+
+    @Override
+    public void stop() {
+        accepting = false;
+        running = false;
+        try {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+            if (flusher.isAlive()) {
+                // Still saving a long queue: finish the current batch and journal the rest
+                abandon = true;
+                flusher.join(properties.getShutdownTimeout().toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Pending> left = new ArrayList<>();
+        if (flusher.isAlive()) {
+            log.error("Laptop flusher did not stop; {} laptops of its current batch may be lost", inFlight.size());
+        } else {
+            left.addAll(inFlight);
+        }
+        queue.drainTo(left);
+        journal(left);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Starts before the web server takes requests and stops after it has stopped taking them
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        long nextEviction = 0;
+        while (!abandon) {
+            if (inFlight.isEmpty()) {
+                try {
+                    if (!fill()) {
+                        if (!running) {
+                            return;
+                        }
+                        if (System.currentTimeMillis() >= nextEviction) {
+                            evictFinishedTickets();
+                            nextEviction = System.currentTimeMillis() + 1000;
+                        }
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            if (!save(inFlight)) {
+                if (!running) {
+                    // Database down while shutting down: stop() journals the batch with the queue
+                    return;
+                }
+                try {
+                    Thread.sleep(properties.getRetryBackoff().toMillis());
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // Collects the next batch into inFlight: batchSize laptops, or what arrives within maxWait of the first
+    private boolean fill() throws InterruptedException {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        inFlight.add(first);
+        int batchSize = properties.getBatchSize();
+        long deadline = System.nanoTime() + properties.getMaxWait().toNanos();
+        while (inFlight.size() < batchSize) {
+            if (queue.drainTo(inFlight, batchSize - inFlight.size()) > 0) {
+                continue;
+            }
+            long left = deadline - System.nanoTime();
+            Pending next = left > 0 ? queue.poll(left, TimeUnit.NANOSECONDS) : null;
+            if (next == null) {
+                break;
+            }
+            inFlight.add(next);
+        }
+        return true;
+    }
+
+    // Removes what it has finished from the batch; false if something is left to retry after retryBackoff
+    private boolean save(List<Pending> batch) {
+        long start = System.nanoTime();
+        try {
+            List<Laptop> laptops = tx.execute(status -> {
+                List<Laptop> persisted = new ArrayList<>(batch.size());
+                for (Pending pending : batch) {
+                    Laptop laptop = toLaptop(pending.laptop());
+                    entityManager.persist(laptop);
+                    persisted.add(laptop);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return persisted;
+            });
+            for (int i = 0; i < batch.size(); i++) {
+                complete(batch.get(i), LaptopTicket.Status.SAVED, laptops.get(i).getId(), null);
+            }
+            batch.clear();
+            batches.increment();
+            Timer timer = flushTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            if (unreachable(e)) {
+                log.warn("Could not save {} queued laptops, will retry: {}", batch.size(), message(e));
+                return false;
+            }
+            int attempts = batch.stream().mapToInt(Pending::attempts).max().orElse(0) + 1;
+            if (transientFailure(e) && attempts < properties.getMaxAttempts()) {
+                log.warn("Batch of {} queued laptops failed, will retry: {}", batch.size(), message(e));
+                batch.replaceAll(Pending::retried);
+                return false;
+            }
+            log.warn("Batch of {} queued laptops failed, saving them one by one: {}", batch.size(), message(e));
+        }
+        for (ListIterator<Pending> it = batch.listIterator(); it.hasNext(); ) {
+            Pending pending = it.next();
+            try {
+                Laptop laptop = tx.execute(status -> {
+                    Laptop single = toLaptop(pending.laptop());
+                    entityManager.persist(single);
+                    entityManager.flush();
+                    return single;
+                });
+                complete(pending, LaptopTicket.Status.SAVED, laptop.getId(), null);
+            } catch (RuntimeException e) {
+                if (unreachable(e)) {
+                    return false;
+                }
+                if (transientFailure(e)) {
+                    Pending retried = pending.retried();
+                    if (retried.attempts() < properties.getMaxAttempts()) {
+                        // Stays in the batch for the next round
+                        it.set(retried);
+                        continue;
+                    }
+                    complete(pending, LaptopTicket.Status.FAILED, null,
+                            "Gave up after " + retried.attempts() + " attempts: " + message(e));
+                } else {
+                    complete(pending, LaptopTicket.Status.FAILED, null, message(e));
+                }
+            }
+            it.remove();
+        }
+        return batch.isEmpty();
+    }
+
+    private Laptop toLaptop(LaptopRegistration registration) {
+        Person person = registration.personId() == null ? null
+                : entityManager.getReference(Person.class, registration.personId());
+        return new Laptop(0, registration.brand(), registration.model(), registration.price(), person);
+    }
+
+    private void complete(Pending pending, LaptopTicket.Status status, Integer laptopId, String error) {
+        long now = System.currentTimeMillis();
+        tickets.put(pending.trackingId(),
+                new Tracked(new LaptopTicket(pending.trackingId(), status, laptopId, error), now));
+        (status == LaptopTicket.Status.SAVED ? saved : failed).increment();
+        Timer timer = waitTimer;
+        if (timer != null) {
+            timer.record(Math.max(0, now - pending.enqueuedAtMillis()), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void evictFinishedTickets() {
+        long oldest = System.currentTimeMillis() - properties.getTicketTtl().toMillis();
+        tickets.values().removeIf(t -> t.finishedAtMillis() > 0 && t.finishedAtMillis() < oldest);
+    }
+
+    // Connection trouble rather than a problem with the laptops themselves; retried without a limit
+    private static boolean unreachable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof CannotCreateTransactionException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof TransientDataAccessResourceException
+                    || cause instanceof JDBCConnectionException
+                    || cause instanceof SQLTransientConnectionException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Deadlocks, lock and query timeouts: may go away on a retry, but may also keep coming back
+    private static boolean transientFailure(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientDataAccessException || cause instanceof SQLTransientException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String message(Throwable e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return cause.getMessage() == null ? cause.getClass().getSimpleName() : cause.getMessage();
+    }
+
+    private void journal(List<Pending> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Path path = properties.getJournal();
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (Pending p : pending) {
+                    writer.write(mapper.writeValueAsString(p));
+                    writer.newLine();
+                }
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            journaled.add(pending.size());
+            log.warn("{} queued laptops written to {} for the next start", pending.size(), path);
+        } catch (IOException e) {
+            log.error("Could not journal {} queued laptops, they are lost: {}", pending.size(),
+                    pending.stream().map(Pending::trackingId).toList(), e);
+        }
+    }
+
+    // Puts what the last shutdown journaled back on the queue before taking new registrations, so those
+    // laptops get tickets and are saved, retried and finished by the flusher like live ones. Whatever
+    // does not fit in the queue stays in the journal for the next start.
+    private void requeueJournal() {
+        Path path = properties.getJournal();
+        if (!Files.exists(path)) {
+            return;
+        }
+        List<Pending> pending = new ArrayList<>();
+        try {
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    pending.add(mapper.readValue(line, Pending.class));
+                } catch (IOException e) {
+                    // A line cut short by a crash while journaling
+                    log.error("Skipping unreadable line in {}: {}", path, line);
+                }
+            }
+        } catch (IOException e) {
+            log.error("Could not read {}, leaving it for the next start", path, e);
+            return;
+        }
+        int requeued = 0;
+        for (Pending p : pending) {
+            tickets.put(p.trackingId(), new Tracked(LaptopTicket.queued(p.trackingId()), 0));
+            if (!queue.offer(p)) {
+                tickets.remove(p.trackingId());
+                break;
+            }
+            requeued++;
+        }
+        log.info("Requeued {} laptops from {}", requeued, path);
+        if (requeued < pending.size()) {
+            rewriteJournal(path, pending.subList(requeued, pending.size()));
+            return;
+        }
+        try {
+            Files.delete(path);
+        } catch (IOException e) {
+            log.error("Requeued {} but could not delete it; its laptops would be saved twice", path, e);
+        }
+    }
+
+    private void rewriteJournal(Path path, List<Pending> left) {
+        log.warn("{} journaled laptops did not fit in the queue, keeping them in {}", left.size(), path);
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                for (Pending p : left) {
+                    writer.write(mapper.writeValueAsString(p));
+                    writer.newLine();
+                }
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Could not rewrite {}; requeued laptops will be saved again", path, e);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("mapping.laptop.queue.depth", this, w -> w.queue == null ? 0 : w.queue.size())
+                .description("Laptops waiting to be saved")
+                .register(registry);
+        Gauge.builder("mapping.laptop.queue.capacity", properties, WriteBehindProperties::getCapacity)
+                .register(registry);
+        Gauge.builder("mapping.laptop.queue.lag", this, LaptopWriteBehind::lagSeconds)
+                .description("Age of the oldest laptop still waiting in the queue")
+                .baseUnit("seconds")
+                .register(registry);
+        counter(registry, "mapping.laptop.queue.accepted", accepted, "Laptops put on the queue");
+        counter(registry, "mapping.laptop.queue.rejected", rejected, "Laptops turned away because the queue was full");
+        counter(registry, "mapping.laptop.queue.saved", saved, "Queued laptops saved");
+        counter(registry, "mapping.laptop.queue.failed", failed, "Queued laptops that could not be saved");
+        counter(registry, "mapping.laptop.queue.journaled", journaled, "Queued laptops written to the journal on shutdown");
+        counter(registry, "mapping.laptop.queue.batches", batches, "Batches saved in one transaction");
+        waitTimer = Timer.builder("mapping.laptop.queue.wait")
+                .description("Time from submit until the laptop was saved or failed")
+                .publishPercentileHistogram()
+                .register(registry);
+        flushTimer = Timer.builder("mapping.laptop.queue.flush")
+                .description("Time to save one batch")
+                .register(registry);
+    }
+
+    private double lagSeconds() {
+        Pending head = queue == null ? null : queue.peek();
+        return head == null ? 0 : (System.currentTimeMillis() - head.enqueuedAtMillis()) / 1000.0;
+    }
+
+    private static void counter(MeterRegistry registry, String name, LongAdder adder, String description) {
+        FunctionCounter.builder(name, adder, LongAdder::sum)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,18 @@
+package Restart.MappingTheory.writebehind;
+
+import java.time.Duration;
+
+// The write-behind queue stayed full for the whole offer timeout, or it is shutting down
+public class QueueFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public QueueFullException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
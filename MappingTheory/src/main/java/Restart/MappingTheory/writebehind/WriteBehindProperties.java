@@ -0,0 +1,43 @@
+package Restart.MappingTheory.writebehind;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// mapping.laptop.write-behind.*; nothing is queued unless enabled=true
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "mapping.laptop.write-behind")
+public class WriteBehindProperties {
+
+    private boolean enabled = false;
+
+    // Laptops held in memory; a full queue answers 503 with Retry-After
+    private int capacity = 10_000;
+
+    // A batch is flushed once it has batchSize laptops or maxWait has passed since its first one
+    private int batchSize = 500;
+    private Duration maxWait = Duration.ofMillis(200);
+
+    // How long a request may wait for room in a full queue before it is turned away
+    private Duration offerTimeout = Duration.ofMillis(50);
+
+    // Where laptops that could not be saved before shutdown are kept for the next start
+    private Path journal = Path.of("laptop-write-behind.ndjson");
+
+    // How long to keep trying to save the queue on shutdown before journaling the rest
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    // Back-off between attempts while the database is unreachable or a batch hit a transient error
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    // Attempts per laptop when saving keeps failing with a transient error (deadlock, lock timeout);
+    // after that it is FAILED. An unreachable database does not count.
+    private int maxAttempts = 5;
+
+    // How long a finished ticket can still be looked up
+    private Duration ticketTtl = Duration.ofMinutes(10);
+}
@@ -0,0 +1,24 @@
+-- Converts laptop.price from VARCHAR to DECIMAL(12,2) and adds the price indexes on an existing MySQL
+-- database. ddl-auto=update adds new columns and tables but never changes a column type, so run this
+-- once by hand before starting the new version:
+--   mysql -u root -p Map < src/main/resources/db/laptop-price-decimal.sql
+-- Prices that are not plain numbers ("1,200", "$900", "n/a") are cleaned up or set to NULL; check them
+-- first with the SELECT below.
+
+SELECT id, brand, price FROM laptop
+WHERE price IS NOT NULL
+  AND REPLACE(REPLACE(TRIM(price), ',', ''), '$', '') NOT REGEXP '^[0-9]+(\\.[0-9]+)?$';
+
+ALTER TABLE laptop ADD COLUMN price_decimal DECIMAL(12, 2) NULL;
+
+UPDATE laptop
+SET price_decimal = CASE
+    WHEN REPLACE(REPLACE(TRIM(price), ',', ''), '$', '') REGEXP '^[0-9]+(\\.[0-9]+)?$'
+        THEN CAST(REPLACE(REPLACE(TRIM(price), ',', ''), '$', '') AS DECIMAL(12, 2))
+    END;
+
+ALTER TABLE laptop
+    DROP COLUMN price,
+    RENAME COLUMN price_decimal TO price,
+    ADD INDEX idx_laptop_brand_price (brand, price),
+    ADD INDEX idx_laptop_price (price);
@@ -0,0 +1,36 @@
+-- Moves an existing MySQL database to the shared primary key between person and passport
+-- (passport.passid = person.id, person.person_passport dropped). ddl-auto=update cannot do this, so run
+-- it once by hand before starting the new version:
+--   mysql -u root -p Map < src/main/resources/db/passport-shared-key.sql
+-- Passports no person points to have nowhere to go and are dropped; list them first with the SELECT below.
+
+SELECT pp.* FROM passport pp
+WHERE NOT EXISTS (SELECT 1 FROM person p WHERE p.person_passport = pp.passid);
+
+CREATE TABLE passport_shared (
+    passid     INT NOT NULL PRIMARY KEY,
+    firstname  VARCHAR(255),
+    lastname   VARCHAR(255),
+    middlename VARCHAR(255),
+    CONSTRAINT fk_passport_person FOREIGN KEY (passid) REFERENCES person (id)
+);
+
+INSERT INTO passport_shared (passid, firstname, lastname, middlename)
+SELECT p.id, pp.firstname, pp.lastname, pp.middlename
+FROM person p
+JOIN passport pp ON pp.passid = p.person_passport;
+
+-- The foreign key on person_passport has a generated name
+SELECT CONCAT('ALTER TABLE person DROP FOREIGN KEY ', constraint_name) INTO @drop_fk
+FROM information_schema.key_column_usage
+WHERE table_schema = DATABASE() AND table_name = 'person' AND column_name = 'person_passport'
+  AND referenced_table_name IS NOT NULL
+LIMIT 1;
+PREPARE drop_fk FROM @drop_fk;
+EXECUTE drop_fk;
+DEALLOCATE PREPARE drop_fk;
+
+ALTER TABLE person DROP COLUMN person_passport;
+DROP TABLE passport;
+RENAME TABLE passport_shared TO passport;
+DELETE FROM id_block WHERE entity = 'passport';
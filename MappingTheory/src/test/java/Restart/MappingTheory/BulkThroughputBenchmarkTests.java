@@ -0,0 +1,106 @@
+package Restart.MappingTheory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Saves the same person + passport + laptops aggregates through the single-item endpoints (one POST and
+// one transaction per person, passport and laptop) and through /person/bulk, and logs aggregates/sec.
+// The id blocks only pay off once round trips cost something, so the numbers worth reading come from MySQL;
+// bench.url switches from H2, and the test profile rebuilds person, passport, laptop and id_block there:
+//   mvn test -Dtest=BulkThroughputBenchmarkTests -Dbench.bulk=true -Dbench.aggregates=5000 \
+//       -Dbench.url="jdbc:mysql://localhost:3306/map_bench?rewriteBatchedStatements=true" -Dbench.password=... \
+//       -Dbench.driver=com.mysql.cj.jdbc.Driver -Dbench.dialect=org.hibernate.dialect.MySQLDialect
+@EnabledIfSystemProperty(named = "bench.bulk", matches = "true")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${bench.url:jdbc:h2:mem:mappingbench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1}",
+        "spring.datasource.username=${bench.user:sa}",
+        "spring.datasource.password=${bench.password:}",
+        "spring.datasource.driver-class-name=${bench.driver:org.h2.Driver}",
+        "spring.jpa.database-platform=${bench.dialect:org.hibernate.dialect.H2Dialect}"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BulkThroughputBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkThroughputBenchmarkTests.class);
+
+    private static final int LAPTOPS = 2;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Test
+    void bulkEndpointAgainstSingleItemEndpoints() throws Exception {
+        int aggregates = Integer.getInteger("bench.aggregates", 5000);
+        // Warm-up: class loading, JIT and the first id blocks
+        single(aggregates / 10);
+        bulk(aggregates / 10);
+
+        long singleNanos = single(aggregates);
+        long bulkNanos = bulk(aggregates);
+        double singleRate = aggregates / (singleNanos / 1_000_000_000.0);
+        double bulkRate = aggregates / (bulkNanos / 1_000_000_000.0);
+        log.info("single-item endpoints: {} aggregates, {} aggregates/sec", aggregates, Math.round(singleRate));
+        log.info("/person/bulk: {} aggregates, {} aggregates/sec ({}x)",
+                aggregates, Math.round(bulkRate), String.format("%.1f", bulkRate / singleRate));
+
+        assertThat(bulkRate).isGreaterThan(singleRate);
+    }
+
+    private long single(int aggregates) throws Exception {
+        long start = System.nanoTime();
+        for (int a = 0; a < aggregates; a++) {
+            JsonNode person = postJson("/person", "{\"name\": {\"firstname\": \"P" + a + "\"}}");
+            postJson("/passport", "{\"name\": {\"firstname\": \"P" + a + "\"}, "
+                    + "\"person\": {\"id\": " + person.get("id").asInt() + "}}");
+            for (int l = 0; l < LAPTOPS; l++) {
+                postJson("/laptop", "{\"brand\": \"B" + l + "\", \"model\": \"M\", \"price\": \"100\", "
+                        + "\"person\": {\"id\": " + person.get("id").asInt() + "}}");
+            }
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long bulk(int aggregates) throws Exception {
+        StringBuilder body = new StringBuilder("[");
+        for (int a = 0; a < aggregates; a++) {
+            body.append(a == 0 ? "" : ",").append("{\"name\": {\"firstname\": \"P").append(a).append("\"}, ")
+                    .append("\"passport\": {\"name\": {\"firstname\": \"P").append(a).append("\"}}, \"laptops\": [");
+            for (int l = 0; l < LAPTOPS; l++) {
+                body.append(l == 0 ? "" : ",")
+                        .append("{\"brand\": \"B").append(l).append("\", \"model\": \"M\", \"price\": \"100\"}");
+            }
+            body.append("]}");
+        }
+        body.append("]");
+        long start = System.nanoTime();
+        JsonNode result = postJson("/person/bulk", body.toString());
+        long elapsed = System.nanoTime() - start;
+        assertThat(result.get("failed").asInt()).isZero();
+        return elapsed;
+    }
+
+    private JsonNode postJson(String path, String json) throws Exception {
+        String response = mvc.perform(post(path).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return mapper.readTree(response);
+    }
+}
@@ -0,0 +1,112 @@
+package Restart.MappingTheory;
+
+import Restart.MappingTheory.dto.BrandPriceStats;
+import Restart.MappingTheory.dto.LaptopView;
+import Restart.MappingTheory.dto.LaptopWindow;
+import Restart.MappingTheory.model.Laptop;
+import Restart.MappingTheory.repo.LaptopRepo;
+import Restart.MappingTheory.service.LaptopService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Own database: the counts below must not see laptops saved by the other test classes
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:laptopprice;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LaptopPriceTests {
+
+    @Autowired
+    private LaptopRepo repo;
+
+    @Autowired
+    private LaptopService service;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @BeforeEach
+    void seed() {
+        if (repo.count() > 0) {
+            return;
+        }
+        List<Laptop> laptops = new ArrayList<>();
+        // Dell at 100, 200, ..., 1000; HP at 150, 350, ..., 950; two Dells share the price 500
+        for (int i = 1; i <= 10; i++) {
+            laptops.add(new Laptop(0, "Dell", "D" + i, new BigDecimal(i * 100), null));
+        }
+        laptops.add(new Laptop(0, "Dell", "D5b", new BigDecimal("500.00"), null));
+        for (int i = 0; i < 5; i++) {
+            laptops.add(new Laptop(0, "HP", "H" + i, new BigDecimal(150 + i * 200), null));
+        }
+        laptops.add(new Laptop(0, "HP", "unpriced", null, null));
+        repo.saveAll(laptops);
+    }
+
+    @Test
+    void walksAPriceRangeInWindows() {
+        List<LaptopView> seen = new ArrayList<>();
+        LaptopWindow window = service.toGetPriceRange(null, new BigDecimal("200"), new BigDecimal("700"), null, null, 3);
+        seen.addAll(window.items());
+        while (window.hasNext()) {
+            window = service.toGetPriceRange(null, new BigDecimal("200"), new BigDecimal("700"),
+                    window.nextPrice(), window.nextId(), 3);
+            seen.addAll(window.items());
+        }
+        // 200, 300, 350, 400, 500, 500, 550, 600, 700: no gaps or repeats across the tie at 500
+        assertThat(seen).extracting(LaptopView::price).extracting(BigDecimal::intValue)
+                .containsExactly(200, 300, 350, 400, 500, 500, 550, 600, 700);
+        assertThat(seen).extracting(LaptopView::id).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void filtersTheRangeByBrand() {
+        LaptopWindow window = service.toGetPriceRange("HP", BigDecimal.ZERO, new BigDecimal("600"), null, null, 10);
+        assertThat(window.items()).extracting(LaptopView::model).containsExactly("H0", "H1", "H2");
+        assertThat(window.hasNext()).isFalse();
+        assertThat(window.nextId()).isNull();
+    }
+
+    @Test
+    void aggregatesPerBrandInTheDatabase() {
+        List<BrandPriceStats> stats = service.toGetBrandStats();
+        assertThat(stats).extracting(BrandPriceStats::brand).containsExactly("Dell", "HP");
+
+        BrandPriceStats hp = stats.get(1);
+        // The unpriced HP is not counted
+        assertThat(hp.count()).isEqualTo(5);
+        assertThat(hp.min()).isEqualByComparingTo("150");
+        assertThat(hp.max()).isEqualByComparingTo("950");
+        assertThat(hp.avg()).isEqualTo(550.0);
+        assertThat(service.toGetBrandStats("Dell")).get().extracting(BrandPriceStats::count).isEqualTo(11L);
+    }
+
+    @Test
+    void endpointsValidateAndReturnProjections() throws Exception {
+        mvc.perform(get("/laptop/price").param("min", "900").param("max", "1000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].model").value("D9"))
+                .andExpect(jsonPath("$.items[1].model").value("H4"))
+                .andExpect(jsonPath("$.items[0].person").doesNotExist());
+        mvc.perform(get("/laptop/price").param("min", "10").param("max", "1"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/laptop/stats/Acer"))
+                .andExpect(status().isNotFound());
+        mvc.perform(get("/laptop/stats/Dell"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.count").value(11));
+    }
+}
@@ -0,0 +1,138 @@
+package Restart.MappingTheory;
+
+import Restart.MappingTheory.dto.LaptopRegistration;
+import Restart.MappingTheory.dto.LaptopTicket;
+import Restart.MappingTheory.model.Laptop;
+import Restart.MappingTheory.repo.LaptopRepo;
+import Restart.MappingTheory.writebehind.LaptopWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:writebehind;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "mapping.laptop.write-behind.enabled=true",
+        "mapping.laptop.write-behind.batch-size=10",
+        "mapping.laptop.write-behind.max-wait=100ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LaptopWriteBehindTests {
+
+    // What a previous shutdown left behind; back on the queue when the context starts
+    private static final Path JOURNAL = journal();
+
+    @DynamicPropertySource
+    static void journalPath(DynamicPropertyRegistry registry) {
+        registry.add("mapping.laptop.write-behind.journal", JOURNAL::toString);
+    }
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private LaptopWriteBehind writeBehind;
+
+    @Autowired
+    private LaptopRepo repo;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @Test
+    void journaledLaptopsAreSavedOnStartup() throws Exception {
+        assertThat(Files.exists(JOURNAL)).isFalse();
+        assertThat(writeBehind.awaitDrained(Duration.ofSeconds(10))).isTrue();
+        assertThat(laptops("Replayed")).extracting(Laptop::getModel).containsExactlyInAnyOrder("R1", "R2");
+        // Finished like live registrations, so the tickets do not stay QUEUED
+        assertThat(writeBehind.ticket(UUID.fromString("6f1c7a52-8d0e-4a43-9a55-2f4a0c3e1b01"))).get()
+                .extracting(LaptopTicket::status).isEqualTo(LaptopTicket.Status.SAVED);
+    }
+
+    @Test
+    void queuedLaptopsAreSavedInBatches() throws Exception {
+        double batchesBefore = registry.get("mapping.laptop.queue.batches").functionCounter().count();
+        List<String> locations = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            locations.add(mvc.perform(post("/laptop/queued").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"brand\": \"Queued\", \"model\": \"Q" + i + "\", \"price\": 799.99}"))
+                    .andExpect(status().isAccepted())
+                    .andExpect(jsonPath("$.status").value("QUEUED"))
+                    .andExpect(header().exists("Location"))
+                    .andReturn().getResponse().getHeader("Location"));
+        }
+        assertThat(writeBehind.awaitDrained(Duration.ofSeconds(10))).isTrue();
+
+        assertThat(laptops("Queued")).hasSize(25);
+        double batches = registry.get("mapping.laptop.queue.batches").functionCounter().count() - batchesBefore;
+        assertThat(batches).isBetween(3.0, 24.0);
+        mvc.perform(get(locations.get(0)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SAVED"))
+                .andExpect(jsonPath("$.laptopId").isNumber());
+    }
+
+    @Test
+    void aBadLaptopOnlyFailsItself() throws Exception {
+        LaptopTicket good = writeBehind.submit(new LaptopRegistration("Mixed", "ok", BigDecimal.TEN, null));
+        LaptopTicket orphan = writeBehind.submit(new LaptopRegistration("Mixed", "orphan", BigDecimal.TEN, 999_999));
+        assertThat(writeBehind.awaitDrained(Duration.ofSeconds(10))).isTrue();
+
+        assertThat(writeBehind.ticket(good.trackingId())).get()
+                .extracting(LaptopTicket::status).isEqualTo(LaptopTicket.Status.SAVED);
+        assertThat(writeBehind.ticket(orphan.trackingId())).get()
+                .satisfies(ticket -> {
+                    assertThat(ticket.status()).isEqualTo(LaptopTicket.Status.FAILED);
+                    assertThat(ticket.error()).isNotBlank();
+                });
+        assertThat(laptops("Mixed")).extracting(Laptop::getModel).containsExactly("ok");
+    }
+
+    @Test
+    void exportsQueueMetrics() {
+        assertThat(registry.get("mapping.laptop.queue.depth").gauge()).isNotNull();
+        assertThat(registry.get("mapping.laptop.queue.lag").gauge().value()).isGreaterThanOrEqualTo(0);
+        assertThat(registry.get("mapping.laptop.queue.wait").timer()).isNotNull();
+    }
+
+    private List<Laptop> laptops(String brand) {
+        return repo.findAll().stream().filter(laptop -> brand.equals(laptop.getBrand())).toList();
+    }
+
+    private static Path journal() {
+        try {
+            Path journal = Files.createTempFile("laptop-write-behind", ".ndjson");
+            Files.writeString(journal, """
+                    {"trackingId":"6f1c7a52-8d0e-4a43-9a55-2f4a0c3e1b01","enqueuedAtMillis":1700000000000,"laptop":{"brand":"Replayed","model":"R1","price":10.00,"personId":null}}
+                    {"trackingId":"6f1c7a52-8d0e-4a43-9a55-2f4a0c3e1b02","enqueuedAtMillis":1700000000001,"laptop":{"brand":"Replayed","model":"R2","price":20.00,"personId":null}}
+                    """);
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
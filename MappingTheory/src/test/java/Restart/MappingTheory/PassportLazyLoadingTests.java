@@ -0,0 +1,110 @@
+package Restart.MappingTheory;
+
+import Restart.MappingTheory.model.Laptop;
+import Restart.MappingTheory.model.Passport;
+import Restart.MappingTheory.model.Person;
+import Restart.MappingTheory.model.Str;
+import Restart.MappingTheory.repo.PassportRepo;
+import Restart.MappingTheory.repo.PersonRepo;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement counts for the shared-key one-to-one. The Person side is only lazy in the enhanced classes,
+// so run these through Maven (the enhance goal runs before the tests), not straight from an IDE build.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:passportlazy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class PassportLazyLoadingTests {
+
+    private static final int PEOPLE = 20;
+
+    @Autowired
+    private PassportRepo passportRepo;
+
+    @Autowired
+    private PersonRepo personRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (personRepo.count() > 0) {
+            return;
+        }
+        List<Person> people = new ArrayList<>();
+        for (int i = 0; i < PEOPLE; i++) {
+            Person person = new Person(0, new Str("Person", "N" + i, null), null, new ArrayList<>());
+            person.setPassport(new Passport(new Str("Person", "N" + i, null), 0, person));
+            person.getLaptops().add(new Laptop(0, "Dell", "XPS", new BigDecimal("1000"), person));
+            people.add(person);
+        }
+        personRepo.saveAll(people);
+    }
+
+    @Test
+    void passportsShareTheirPersonsId() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (Passport passport : passportRepo.findAll()) {
+                assertThat(passport.getPassid()).isEqualTo(passport.getPerson().getId());
+            }
+        });
+    }
+
+    @Test
+    void loadingNPassportsIsOneStatement() {
+        statistics.clear();
+        List<Passport> passports = passportRepo.findAll();
+
+        assertThat(passports).hasSize(PEOPLE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        // The person is a proxy whose id is the passport's own key
+        assertThat(passports).allSatisfy(passport -> {
+            assertThat(Hibernate.isInitialized(passport.getPerson())).isFalse();
+            assertThat(passport.getPerson().getId()).isEqualTo(passport.getPassid());
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loadingNPeopleDoesNotLoadTheirPassports() {
+        statistics.clear();
+        List<Person> people = personRepo.findAll();
+
+        assertThat(people).hasSize(PEOPLE);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(people).allSatisfy(person ->
+                assertThat(Hibernate.isPropertyInitialized(person, "passport")).isFalse());
+    }
+
+    @Test
+    void thePassportLoadsOnFirstAccess() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Person person = personRepo.findAll().get(0);
+            statistics.clear();
+
+            assertThat(person.getPassport().getPassid()).isEqualTo(person.getId());
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package Restart.MappingTheory;
+
+import Restart.MappingTheory.repo.LaptopRepo;
+import Restart.MappingTheory.repo.PassportRepo;
+import Restart.MappingTheory.repo.PersonRepo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "mapping.bulk.chunk-size=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PersonBulkTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private PersonRepo personRepo;
+
+    @Autowired
+    private PassportRepo passportRepo;
+
+    @Autowired
+    private LaptopRepo laptopRepo;
+
+    @Test
+    void savesWholeAggregatesAndReportsEveryItem() throws Exception {
+        long people = personRepo.count();
+        long passports = passportRepo.count();
+        long laptops = laptopRepo.count();
+
+        mvc.perform(post("/person/bulk").contentType(MediaType.APPLICATION_JSON).content("""
+                        [
+                          {"name": {"firstname": "Ada", "lastname": "Lovelace"},
+                           "passport": {"name": {"firstname": "Ada"}},
+                           "laptops": [{"brand": "Dell", "model": "XPS", "price": "1200"},
+                                       {"brand": "HP", "model": "Envy", "price": "900"}]},
+                          {"name": {"lastname": "Nameless"}},
+                          {"name": {"firstname": "Alan", "lastname": "Turing"}, "laptops": []}
+                        ]"""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items", hasSize(3)))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[0].passportId", notNullValue()))
+                .andExpect(jsonPath("$.items[0].laptopIds", hasSize(2)))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[1].error").value("Person needs a name.firstname"))
+                .andExpect(jsonPath("$.items[2].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[2].passportId", nullValue()));
+
+        assertThat(personRepo.count()).isEqualTo(people + 2);
+        assertThat(passportRepo.count()).isEqualTo(passports + 1);
+        assertThat(laptopRepo.count()).isEqualTo(laptops + 2);
+        // The back-reference the JSON cannot carry is set before saving
+        assertThat(laptopRepo.findAll()).allSatisfy(laptop -> assertThat(laptop.getPerson()).isNotNull());
+    }
+
+    @Test
+    void aFailingItemOnlyFailsItself() throws Exception {
+        long people = personRepo.count();
+        String tooLong = "x".repeat(300);
+
+        // The second item breaks the database column length, which takes its chunk down; the retry
+        // saves its chunk neighbour on its own
+        mvc.perform(post("/person/bulk").contentType(MediaType.APPLICATION_JSON).content("""
+                        [
+                          {"name": {"firstname": "Grace", "lastname": "Hopper"}},
+                          {"name": {"firstname": "%s"}},
+                          {"name": {"firstname": "Edsger", "lastname": "Dijkstra"}}
+                        ]""".formatted(tooLong)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.items[1].error", notNullValue()))
+                .andExpect(jsonPath("$.items[2].status").value("CREATED"));
+
+        assertThat(personRepo.count()).isEqualTo(people + 2);
+    }
+
+    @Test
+    void rejectsEmptyRequests() throws Exception {
+        mvc.perform(post("/person/bulk").contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+    }
+}